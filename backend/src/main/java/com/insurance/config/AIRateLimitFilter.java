@@ -0,0 +1,55 @@
+package com.insurance.config;
+
+import com.insurance.service.AIRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects AI requests over the caller's rate limit with 429 and Retry-After. Added to the
+ * security chain after JWT authentication so signed-in users are recognised; it is not a bean,
+ * so the servlet container does not also run it ahead of authentication.
+ */
+public class AIRateLimitFilter extends OncePerRequestFilter {
+
+    private final AIRateLimiter rateLimiter;
+
+    public AIRateLimitFilter(AIRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/v1/ai/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken) ? authentication.getName() : null;
+
+        long waitMillis = rateLimiter.admit(username, request.getRemoteAddr());
+        if (waitMillis > 0) {
+            long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many AI requests, please try again later\","
+                    + "\"retryAfterSeconds\":" + retryAfterSeconds + "}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,87 @@
+package com.insurance.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Dedicated HTTP client for Gemini calls, with its own sized connection pool so LLM traffic
+ * neither shares nor exhausts the defaults used elsewhere. Pool metrics are published as
+ * reactor.netty.connection.provider.* (active, idle, pending and total connections) tagged
+ * with name=gemini, and request metrics as reactor.netty.http.client.*.
+ */
+@Configuration
+public class GeminiClientConfig {
+
+    @Value("${gemini.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${gemini.http.pending-acquire-max-count:200}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${gemini.http.pending-acquire-timeout-ms:5000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${gemini.http.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs;
+
+    @Value("${gemini.http.max-life-time-ms:300000}")
+    private long maxLifeTimeMs;
+
+    @Value("${gemini.http.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${gemini.http.response-timeout-ms:30000}")
+    private long responseTimeoutMs;
+
+    @Value("${gemini.http.http2-enabled:true}")
+    private boolean http2Enabled;
+
+    @Value("${gemini.http.compression-enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${gemini.http.max-in-memory-size:1048576}")
+    private int maxInMemorySize;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider() {
+        return ConnectionProvider.builder("gemini")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                // Close idle connections proactively instead of only when next acquired
+                .evictInBackground(Duration.ofMillis(Math.max(1000, maxIdleTimeMs / 2)))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient geminiWebClient(WebClient.Builder webClientBuilder, ConnectionProvider geminiConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(geminiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .compress(compressionEnabled)
+                // The API key travels in the query string, so requests are tagged with a fixed URI
+                .metrics(true, uri -> "/gemini");
+        if (http2Enabled) {
+            // HTTP/2 is negotiated via ALPN over TLS; plain-http URLs stay on HTTP/1.1
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .build();
+    }
+}
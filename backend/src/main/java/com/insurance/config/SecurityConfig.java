@@ -1,5 +1,6 @@
 package com.insurance.config;
 
+import com.insurance.service.AIRateLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -35,6 +36,9 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService;
     
+    @Autowired
+    private AIRateLimiter aiRateLimiter;
+    
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
     
@@ -46,6 +50,7 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/v1/auth/**", "/api/v1/health", "/api/v1/ai/**", "/error").permitAll()
                 .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api/v1/agent/**").hasAnyRole("AGENT", "ADMIN")
                 .anyRequest().authenticated()
             )
@@ -53,7 +58,8 @@ public class SecurityConfig {
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(new AIRateLimitFilter(aiRateLimiter), JwtAuthenticationFilter.class);
         
         return http.build();
     }
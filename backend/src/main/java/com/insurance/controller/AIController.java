@@ -5,8 +5,13 @@ import com.insurance.dto.AIQueryResponse;
 import com.insurance.service.AIService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/ai")
@@ -16,8 +21,14 @@ public class AIController {
     @Autowired
     private AIService aiService;
     
+    // Async: the servlet thread is released while Gemini answers
     @PostMapping("/query")
-    public ResponseEntity<AIQueryResponse> processQuery(@Valid @RequestBody AIQueryRequest request) {
-        return ResponseEntity.ok(aiService.processQuery(request));
+    public CompletableFuture<ResponseEntity<AIQueryResponse>> processQuery(@Valid @RequestBody AIQueryRequest request) {
+        return aiService.processQuery(request).thenApply(ResponseEntity::ok);
+    }
+    
+    @PostMapping(path = "/query/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamQuery(@Valid @RequestBody AIQueryRequest request) {
+        return aiService.streamQuery(request);
     }
 }
@@ -1,14 +1,34 @@
 package com.insurance.controller;
 
+import com.insurance.dto.AgentScorecardDTO;
 import com.insurance.dto.AnalyticsDTO;
+import com.insurance.dto.TimeSeriesDTO;
+import com.insurance.entity.Appointment;
+import com.insurance.entity.EngagementSketch;
 import com.insurance.entity.User;
+import com.insurance.service.AgentScorecardService;
 import com.insurance.service.AnalyticsService;
+import com.insurance.service.AppointmentRollupService;
+import com.insurance.service.AppointmentTimeSeriesService;
+import com.insurance.service.DashboardEventService;
+import com.insurance.service.EngagementService;
+import com.insurance.service.ExportService;
+import com.insurance.service.LocalAnswerIndex;
 import com.insurance.service.UserService;
+import com.insurance.util.HyperLogLog;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +44,27 @@ public class AdminController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private AppointmentRollupService rollupService;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private DashboardEventService dashboardEventService;
+    
+    @Autowired
+    private EngagementService engagementService;
+    
+    @Autowired
+    private AppointmentTimeSeriesService timeSeriesService;
+    
+    @Autowired
+    private AgentScorecardService scorecardService;
+    
+    @Autowired
+    private LocalAnswerIndex localAnswerIndex;
+    
     @GetMapping("/analytics")
     public ResponseEntity<AnalyticsDTO> getAnalytics() {
         return ResponseEntity.ok(analyticsService.getAdminAnalytics());
@@ -34,6 +75,89 @@ public class AdminController {
         return ResponseEntity.ok(analyticsService.getAppointmentsByMonth());
     }
     
+    @GetMapping(path = "/analytics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAnalytics() {
+        return dashboardEventService.subscribe();
+    }
+    
+    @GetMapping("/analytics/timeseries")
+    public ResponseEntity<TimeSeriesDTO> getTimeSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam(required = false) Long agentId,
+            @RequestParam(required = false) Appointment.AppointmentType type,
+            @RequestParam(required = false) Appointment.AppointmentStatus status) {
+        return ResponseEntity.ok(timeSeriesService.query(start, end, AppointmentTimeSeriesService.Bucket.from(bucket),
+                agentId, type, status));
+    }
+    
+    @GetMapping("/analytics/engagement")
+    public ResponseEntity<Map<String, Object>> getEngagement(
+            @RequestParam EngagementSketch.Metric metric,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("endDate must not be before startDate");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("metric", metric);
+        result.put("startDate", startDate);
+        result.put("endDate", endDate);
+        result.put("distinctUsers", engagementService.countDistinctUsers(metric, startDate, endDate));
+        result.put("standardError", HyperLogLog.STANDARD_ERROR);
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping("/analytics/rollup/reconcile")
+    public ResponseEntity<Map<String, Long>> reconcileRollup() {
+        return ResponseEntity.ok(rollupService.reconcile());
+    }
+    
+    @GetMapping("/agents/scorecards")
+    public ResponseEntity<List<AgentScorecardDTO>> getAgentScorecards() {
+        return ResponseEntity.ok(scorecardService.getAllScorecards());
+    }
+    
+    @PostMapping("/agents/scorecards/recompute")
+    public ResponseEntity<Map<String, Integer>> recomputeAgentScorecards() {
+        return ResponseEntity.ok(Map.of("agentsScored", scorecardService.recompute()));
+    }
+    
+    // Helpful Gemini answers become eligible for the AI assistant's local answer index
+    @PutMapping("/ai-queries/{logId}/review")
+    public ResponseEntity<Void> reviewAIAnswer(@PathVariable Long logId, @RequestBody Map<String, Boolean> payload) {
+        localAnswerIndex.review(logId, Boolean.TRUE.equals(payload.get("helpful")));
+        return ResponseEntity.noContent().build();
+    }
+    
+    @GetMapping("/export/appointments")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(@RequestParam(defaultValue = "csv") String format) {
+        ExportService.Format exportFormat = ExportService.Format.from(format);
+        return exportResponse("appointments", exportFormat, out -> exportService.exportAppointments(out, exportFormat));
+    }
+    
+    @GetMapping("/export/ai-queries")
+    public ResponseEntity<StreamingResponseBody> exportAIQueries(@RequestParam(defaultValue = "csv") String format) {
+        ExportService.Format exportFormat = ExportService.Format.from(format);
+        return exportResponse("ai-queries", exportFormat, out -> exportService.exportAIQueryLogs(out, exportFormat));
+    }
+    
+    @GetMapping("/export/notifications")
+    public ResponseEntity<StreamingResponseBody> exportNotifications(@RequestParam(defaultValue = "csv") String format) {
+        ExportService.Format exportFormat = ExportService.Format.from(format);
+        return exportResponse("notifications", exportFormat, out -> exportService.exportNotifications(out, exportFormat));
+    }
+    
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, ExportService.Format format,
+                                                                 StreamingResponseBody body) {
+        String filename = name + "-" + LocalDate.now() + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+    
     @GetMapping("/users")
     public ResponseEntity<List<User>> getAllUsers() {
         return ResponseEntity.ok(userService.getAllUsers());
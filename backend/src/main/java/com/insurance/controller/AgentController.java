@@ -1,6 +1,8 @@
 package com.insurance.controller;
 
 import com.insurance.dto.AgentDTO;
+import com.insurance.dto.AgentScorecardDTO;
+import com.insurance.service.AgentScorecardService;
 import com.insurance.service.AgentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +18,9 @@ public class AgentController {
     @Autowired
     private AgentService agentService;
     
+    @Autowired
+    private AgentScorecardService scorecardService;
+    
     @GetMapping
     public ResponseEntity<List<AgentDTO>> getAllAgents() {
         return ResponseEntity.ok(agentService.getAllAgents());
@@ -36,6 +41,11 @@ public class AgentController {
         return ResponseEntity.ok(agentService.getAgentById(id));
     }
     
+    @GetMapping("/{id}/scorecard")
+    public ResponseEntity<AgentScorecardDTO> getAgentScorecard(@PathVariable Long id) {
+        return ResponseEntity.ok(scorecardService.getScorecard(id));
+    }
+    
     @GetMapping("/user/{userId}")
     public ResponseEntity<AgentDTO> getAgentByUserId(@PathVariable Long userId) {
         return ResponseEntity.ok(agentService.getAgentByUserId(userId));
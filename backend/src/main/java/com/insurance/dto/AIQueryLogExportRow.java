@@ -0,0 +1,26 @@
+package com.insurance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat AI query log row produced directly by the export query (no entities are loaded).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIQueryLogExportRow {
+    
+    private Long id;
+    private Long userId;
+    private String question;
+    private String answer;
+    private String category;
+    private Boolean isVoiceQuery;
+    private Integer responseTime;
+    private Boolean wasHelpful;
+    private LocalDateTime createdAt;
+}
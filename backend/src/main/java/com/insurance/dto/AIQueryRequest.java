@@ -18,4 +18,8 @@ public class AIQueryRequest {
     private Boolean isVoiceQuery = false;
     
     private Long userId;
+    
+    // Skip the answer cache and local index and ask the model again; the fresh answer is still cached
+    @Builder.Default
+    private Boolean bypassCache = false;
 }
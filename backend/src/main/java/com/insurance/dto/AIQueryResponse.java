@@ -16,4 +16,9 @@ public class AIQueryResponse {
     private Integer responseTime;
     private Boolean canBookAppointment;
     private String suggestedAction;
+    private AnswerSource answerSource;
+    
+    public enum AnswerSource {
+        CACHE, LOCAL_INDEX, LLM, FALLBACK
+    }
 }
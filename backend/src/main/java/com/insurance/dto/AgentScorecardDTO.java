@@ -0,0 +1,28 @@
+package com.insurance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgentScorecardDTO {
+    
+    private Long agentId;
+    private Long totalAppointments;
+    private Long completedCount;
+    private Long cancelledCount;
+    private Long noShowCount;
+    private Double completionRate;
+    private Double cancellationRate;
+    private Double noShowRate;
+    private Double medianLeadTimeHours;
+    private List<Integer> busiestHours;
+    private LocalDateTime computedAt;
+}
@@ -19,6 +19,7 @@ public class AnalyticsDTO {
     private Long confirmedAppointments;
     private Long completedAppointments;
     private Long cancelledAppointments;
+    private Long noShowAppointments;
     
     private Long totalUsers;
     private Long totalAgents;
@@ -36,4 +37,16 @@ public class AnalyticsDTO {
     
     private Map<String, Long> aiQueryCategories;
     private Double averageResponseTime;
+    
+    // AI response-time percentiles and error rate per category, plus "ALL"
+    private Map<String, LatencySummaryDTO> aiLatencyByCategory;
+    
+    // Premium and coverage by policy type and status, plus upcoming expiries
+    private PolicyPortfolioDTO policyPortfolio;
+    
+    // Approximate distinct users per metric: "daily", "weekly" (7 days), "monthly" (30 days)
+    private Map<String, Map<String, Long>> engagement;
+    
+    // Sections that failed or missed the deadline; their fields are null
+    private List<String> unavailableSections;
 }
@@ -0,0 +1,31 @@
+package com.insurance.dto;
+
+import com.insurance.entity.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat appointment row produced directly by the export query (no entities are loaded).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentExportRow {
+    
+    private Long id;
+    private Long customerId;
+    private String customerName;
+    private String customerEmail;
+    private Long agentId;
+    private String agentName;
+    private LocalDateTime appointmentDateTime;
+    private Appointment.AppointmentStatus status;
+    private Appointment.AppointmentType type;
+    private String notes;
+    private String cancellationReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.insurance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LatencySummaryDTO {
+    
+    private Long count;
+    private Long errorCount;
+    private Double errorRate;
+    
+    // Milliseconds
+    private Double mean;
+    private Long p50;
+    private Long p95;
+    private Long p99;
+}
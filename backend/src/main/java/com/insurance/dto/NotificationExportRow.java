@@ -0,0 +1,28 @@
+package com.insurance.dto;
+
+import com.insurance.entity.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat notification row produced directly by the export query (no entities are loaded).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationExportRow {
+    
+    private Long id;
+    private Long userId;
+    private Long appointmentId;
+    private Notification.NotificationType type;
+    private String subject;
+    private String message;
+    private Boolean isRead;
+    private Boolean emailSent;
+    private LocalDateTime createdAt;
+    private LocalDateTime readAt;
+}
@@ -0,0 +1,21 @@
+package com.insurance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PolicyAggregateDTO {
+    
+    private Long count;
+    private BigDecimal totalPremium;
+    private BigDecimal averagePremium;
+    private BigDecimal totalCoverage;
+    private BigDecimal averageCoverage;
+}
@@ -0,0 +1,24 @@
+package com.insurance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PolicyPortfolioDTO {
+    
+    private PolicyAggregateDTO overall;
+    private Map<String, PolicyAggregateDTO> byType;
+    private Map<String, PolicyAggregateDTO> byStatus;
+    
+    // Active policies whose end date falls within the next N days
+    private Long expiringIn30Days;
+    private Long expiringIn60Days;
+    private Long expiringIn90Days;
+}
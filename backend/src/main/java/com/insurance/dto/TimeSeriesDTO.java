@@ -0,0 +1,31 @@
+package com.insurance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimeSeriesDTO {
+    
+    private String bucket;
+    
+    // Requested range aligned to bucket boundaries; end is exclusive
+    private LocalDateTime start;
+    private LocalDateTime end;
+    
+    private Long agentId;
+    private String type;
+    private String status;
+    
+    private Long total;
+    
+    // One point per bucket in the range, including empty ones
+    private List<TimeSeriesPointDTO> points;
+}
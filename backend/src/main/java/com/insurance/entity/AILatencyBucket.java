@@ -0,0 +1,37 @@
+package com.insurance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ai_latency_buckets",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"window_start", "category", "bucket_index"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AILatencyBucket {
+    
+    public static final int ERROR_BUCKET = -1; // row holding the error count of a window
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDateTime windowStart; // truncated to the hour
+    
+    @Column(nullable = false, length = 100)
+    private String category;
+    
+    @Column(nullable = false)
+    private Integer bucketIndex; // LatencyHistogram bucket, or ERROR_BUCKET
+    
+    @Column(nullable = false)
+    private Long sampleCount;
+}
@@ -22,8 +22,8 @@ public class AIQueryLog {
     private Long id;
     
     @ManyToOne
-    @JoinColumn(name = "user_id", nullable = false)
-    private User user;
+    @JoinColumn(name = "user_id")
+    private User user; // Null for anonymous queries
     
     @Column(length = 2000, nullable = false)
     private String question;
@@ -47,4 +47,9 @@ public class AIQueryLog {
     @Column(nullable = false)
     @Builder.Default
     private Boolean wasHelpful = true;
+    
+    @Column(length = 20)
+    private String answerSource; // CACHE, LOCAL_INDEX, LLM or FALLBACK
+    
+    private LocalDateTime reviewedAt; // Set when an admin marks the answer helpful or not
 }
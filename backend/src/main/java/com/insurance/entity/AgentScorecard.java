@@ -0,0 +1,51 @@
+package com.insurance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "agent_scorecards")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgentScorecard {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, unique = true)
+    private Long agentId;
+    
+    @Column(nullable = false)
+    private Long totalAppointments;
+    
+    @Column(nullable = false)
+    private Long completedCount;
+    
+    @Column(nullable = false)
+    private Long cancelledCount;
+    
+    @Column(nullable = false)
+    private Long noShowCount;
+    
+    // Fractions of totalAppointments, 0..1
+    private Double completionRate;
+    private Double cancellationRate;
+    private Double noShowRate;
+    
+    // Median time between booking and the appointment itself
+    private Double medianLeadTimeHours;
+    
+    // Comma-separated hours of day (0-23), busiest first
+    private String busiestHours;
+    
+    @Column(nullable = false)
+    private LocalDateTime computedAt;
+}
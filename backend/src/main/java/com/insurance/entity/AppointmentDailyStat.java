@@ -0,0 +1,41 @@
+package com.insurance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "appointment_daily_stats",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"stat_date", "agent_id", "type", "status"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentDailyStat {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDate statDate; // date part of appointmentDateTime
+    
+    @Column(nullable = false)
+    private Long agentId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Appointment.AppointmentType type;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Appointment.AppointmentStatus status;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long appointmentCount = 0L;
+}
@@ -0,0 +1,44 @@
+package com.insurance.entity;
+
+import com.insurance.util.HyperLogLog;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "engagement_sketches",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"sketch_date", "metric"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EngagementSketch {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDate sketchDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Metric metric;
+    
+    // Serialized HyperLogLog of the user ids seen on sketchDate
+    @Column(nullable = false, length = HyperLogLog.SERIALIZED_SIZE)
+    private byte[] registers;
+    
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+    
+    public enum Metric {
+        APPOINTMENT_BOOKERS, AI_USERS
+    }
+}
@@ -0,0 +1,7 @@
+package com.insurance.event;
+
+/**
+ * Published by AgentContextService whenever the agent block embedded in AI prompts changes.
+ */
+public record AgentContextChangedEvent(long version) {
+}
@@ -0,0 +1,7 @@
+package com.insurance.event;
+
+/**
+ * Published by AgentService after an agent is created, updated or deleted.
+ */
+public record AgentRosterChangedEvent(Long agentId) {
+}
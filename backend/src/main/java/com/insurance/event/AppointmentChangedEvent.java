@@ -0,0 +1,44 @@
+package com.insurance.event;
+
+import com.insurance.entity.Appointment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by AppointmentService after every create, status change and delete.
+ * oldStatus is null for CREATED; newStatus is null for DELETED.
+ */
+public record AppointmentChangedEvent(
+        ChangeType changeType,
+        Long appointmentId,
+        Long agentId,
+        Long customerId,
+        Appointment.AppointmentType type,
+        Appointment.AppointmentStatus oldStatus,
+        Appointment.AppointmentStatus newStatus,
+        LocalDateTime appointmentDateTime) {
+
+    public enum ChangeType {
+        CREATED, STATUS_CHANGED, DELETED
+    }
+
+    public static AppointmentChangedEvent created(Appointment appointment) {
+        return of(ChangeType.CREATED, appointment, null, appointment.getStatus());
+    }
+
+    public static AppointmentChangedEvent statusChanged(Appointment appointment, Appointment.AppointmentStatus oldStatus) {
+        return of(ChangeType.STATUS_CHANGED, appointment, oldStatus, appointment.getStatus());
+    }
+
+    public static AppointmentChangedEvent deleted(Appointment appointment) {
+        return of(ChangeType.DELETED, appointment, appointment.getStatus(), null);
+    }
+
+    private static AppointmentChangedEvent of(ChangeType changeType, Appointment appointment,
+                                              Appointment.AppointmentStatus oldStatus,
+                                              Appointment.AppointmentStatus newStatus) {
+        return new AppointmentChangedEvent(changeType, appointment.getId(), appointment.getAgent().getId(),
+                appointment.getCustomer().getId(), appointment.getType(), oldStatus, newStatus,
+                appointment.getAppointmentDateTime());
+    }
+}
@@ -0,0 +1,33 @@
+package com.insurance.repository;
+
+import com.insurance.entity.AILatencyBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AILatencyBucketRepository extends JpaRepository<AILatencyBucket, Long> {
+    
+    @Modifying
+    @Query(value = "INSERT INTO ai_latency_buckets (window_start, category, bucket_index, sample_count) " +
+                   "VALUES (:windowStart, :category, :bucketIndex, :delta) " +
+                   "ON DUPLICATE KEY UPDATE sample_count = sample_count + :delta",
+           nativeQuery = true)
+    int addSamples(@Param("windowStart") LocalDateTime windowStart,
+                   @Param("category") String category,
+                   @Param("bucketIndex") int bucketIndex,
+                   @Param("delta") long delta);
+    
+    @Query("SELECT b.category, b.bucketIndex, SUM(b.sampleCount) FROM AILatencyBucket b " +
+           "WHERE b.windowStart >= :since GROUP BY b.category, b.bucketIndex")
+    List<Object[]> sumByCategoryAndBucket(@Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM AILatencyBucket b WHERE b.windowStart < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
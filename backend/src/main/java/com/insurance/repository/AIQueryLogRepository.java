@@ -1,11 +1,20 @@
 package com.insurance.repository;
 
+import com.insurance.dto.AIQueryLogExportRow;
 import com.insurance.entity.AIQueryLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AIQueryLogRepository extends JpaRepository<AIQueryLog, Long> {
@@ -20,6 +29,26 @@ public interface AIQueryLogRepository extends JpaRepository<AIQueryLog, Long> {
     @Query("SELECT a.category, COUNT(a) FROM AIQueryLog a WHERE a.category IS NOT NULL GROUP BY a.category")
     List<Object[]> countByCategory();
     
-    @Query("SELECT AVG(a.responseTime) FROM AIQueryLog a WHERE a.responseTime IS NOT NULL")
-    Double getAverageResponseTime();
+    // Must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.insurance.dto.AIQueryLogExportRow(a.id, u.id, a.question, a.answer, a.category, " +
+           "a.isVoiceQuery, a.responseTime, a.wasHelpful, a.createdAt) " +
+           "FROM AIQueryLog a LEFT JOIN a.user u ORDER BY a.id")
+    Stream<AIQueryLogExportRow> streamAllForExport();
+    
+    // One row per (query day, user), for rebuilding engagement sketches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT DISTINCT CAST(a.createdAt AS LocalDate), a.user.id FROM AIQueryLog a " +
+           "WHERE a.user IS NOT NULL AND a.createdAt IS NOT NULL ORDER BY CAST(a.createdAt AS LocalDate)")
+    Stream<Object[]> streamQueryDaysAndUsers();
+    
+    // question, answer of Gemini answers an admin reviewed as helpful, logged since the given time
+    @Query("SELECT a.question, a.answer FROM AIQueryLog a " +
+           "WHERE a.reviewedAt IS NOT NULL AND a.wasHelpful = true AND a.answerSource = 'LLM' " +
+           "AND a.answer IS NOT NULL AND a.createdAt >= :since ORDER BY a.id DESC")
+    List<Object[]> findReviewedAnswersSince(@Param("since") LocalDateTime since, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE AIQueryLog a SET a.wasHelpful = :helpful, a.reviewedAt = :reviewedAt WHERE a.id = :id")
+    int markReviewed(@Param("id") Long id, @Param("helpful") boolean helpful, @Param("reviewedAt") LocalDateTime reviewedAt);
 }
@@ -1,6 +1,7 @@
 package com.insurance.repository;
 
 import com.insurance.entity.Agent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -22,4 +23,19 @@ public interface AgentRepository extends JpaRepository<Agent, Long> {
     
     @Query("SELECT a FROM Agent a ORDER BY a.rating DESC")
     List<Agent> findAllOrderByRatingDesc();
+    
+    @Query("SELECT a.id, u.fullName FROM Agent a JOIN a.user u")
+    List<Object[]> findAllIdAndFullName();
+    
+    @Query("SELECT COUNT(a), SUM(CASE WHEN a.isAvailable = true THEN 1 ELSE 0 END) FROM Agent a")
+    List<Object[]> countTotalAndAvailable();
+    
+    // Name, specialization, availability and experience, available and best-rated agents first
+    @Query("SELECT u.fullName, a.specialization, a.isAvailable, a.experienceYears FROM Agent a JOIN a.user u " +
+           "ORDER BY a.isAvailable DESC, a.rating DESC, a.id")
+    List<Object[]> findPromptSummaries(Pageable pageable);
+    
+    @Query("SELECT a.specialization, COUNT(a) FROM Agent a WHERE a.specialization IS NOT NULL " +
+           "GROUP BY a.specialization ORDER BY COUNT(a) DESC, a.specialization")
+    List<Object[]> countGroupedBySpecialization(Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.insurance.repository;
+
+import com.insurance.entity.AgentScorecard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AgentScorecardRepository extends JpaRepository<AgentScorecard, Long> {
+    
+    Optional<AgentScorecard> findByAgentId(Long agentId);
+}
@@ -0,0 +1,65 @@
+package com.insurance.repository;
+
+import com.insurance.entity.Appointment;
+import com.insurance.entity.AppointmentDailyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AppointmentDailyStatRepository extends JpaRepository<AppointmentDailyStat, Long> {
+    
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_stats (stat_date, agent_id, type, status, appointment_count) " +
+                   "VALUES (:statDate, :agentId, :type, :status, :delta) " +
+                   "ON DUPLICATE KEY UPDATE appointment_count = appointment_count + :delta",
+           nativeQuery = true)
+    int applyDelta(@Param("statDate") LocalDate statDate,
+                   @Param("agentId") Long agentId,
+                   @Param("type") String type,
+                   @Param("status") String status,
+                   @Param("delta") long delta);
+    
+    @Modifying
+    @Query("DELETE FROM AppointmentDailyStat s WHERE s.appointmentCount = 0")
+    int deleteEmpty();
+    
+    @Query("SELECT s.statDate, s.status, SUM(s.appointmentCount) FROM AppointmentDailyStat s " +
+           "WHERE s.statDate >= :startDate AND s.statDate < :endDate GROUP BY s.statDate, s.status")
+    List<Object[]> sumByDayAndStatus(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT YEAR(s.statDate), MONTH(s.statDate), s.status, SUM(s.appointmentCount) FROM AppointmentDailyStat s " +
+           "WHERE s.statDate >= :startDate AND s.statDate < :endDate " +
+           "GROUP BY YEAR(s.statDate), MONTH(s.statDate), s.status")
+    List<Object[]> sumByMonthAndStatus(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    // Null filters match everything
+    @Query("SELECT s.statDate, SUM(s.appointmentCount) FROM AppointmentDailyStat s " +
+           "WHERE s.statDate >= :startDate AND s.statDate < :endDate " +
+           "AND (:agentId IS NULL OR s.agentId = :agentId) " +
+           "AND (:type IS NULL OR s.type = :type) " +
+           "AND (:status IS NULL OR s.status = :status) " +
+           "GROUP BY s.statDate")
+    List<Object[]> sumByDayFiltered(@Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate,
+                                    @Param("agentId") Long agentId,
+                                    @Param("type") Appointment.AppointmentType type,
+                                    @Param("status") Appointment.AppointmentStatus status);
+    
+    @Query("SELECT YEAR(s.statDate), MONTH(s.statDate), SUM(s.appointmentCount) FROM AppointmentDailyStat s " +
+           "WHERE s.statDate >= :startDate AND s.statDate < :endDate " +
+           "AND (:agentId IS NULL OR s.agentId = :agentId) " +
+           "AND (:type IS NULL OR s.type = :type) " +
+           "AND (:status IS NULL OR s.status = :status) " +
+           "GROUP BY YEAR(s.statDate), MONTH(s.statDate)")
+    List<Object[]> sumByMonthFiltered(@Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate,
+                                      @Param("agentId") Long agentId,
+                                      @Param("type") Appointment.AppointmentType type,
+                                      @Param("status") Appointment.AppointmentStatus status);
+}
@@ -1,13 +1,18 @@
 package com.insurance.repository;
 
+import com.insurance.dto.AppointmentExportRow;
 import com.insurance.entity.Appointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
@@ -36,4 +41,56 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     
     @Query("SELECT a FROM Appointment a ORDER BY a.createdAt DESC")
     List<Appointment> findRecentAppointments();
+    
+    List<Appointment> findTop10ByOrderByCreatedAtDesc();
+    
+    // Must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.insurance.dto.AppointmentExportRow(a.id, c.id, c.fullName, c.email, ag.id, u.fullName, " +
+           "a.appointmentDateTime, a.status, a.type, a.notes, a.cancellationReason, a.createdAt, a.updatedAt) " +
+           "FROM Appointment a JOIN a.customer c JOIN a.agent ag JOIN ag.user u ORDER BY a.id")
+    Stream<AppointmentExportRow> streamAllForExport();
+    
+    // Grouped aggregates: one row per group, no entities are loaded
+    
+    @Query("SELECT a.status, COUNT(a) FROM Appointment a GROUP BY a.status")
+    List<Object[]> countGroupedByStatus();
+    
+    @Query("SELECT a.type, COUNT(a) FROM Appointment a GROUP BY a.type")
+    List<Object[]> countGroupedByType();
+    
+    @Query("SELECT a.agent.id, COUNT(a) FROM Appointment a GROUP BY a.agent.id")
+    List<Object[]> countGroupedByAgentId();
+    
+    @Query("SELECT ag.id, u.fullName, COUNT(a) FROM Agent ag JOIN ag.user u " +
+           "LEFT JOIN Appointment a ON a.agent = ag GROUP BY ag.id, u.fullName")
+    List<Object[]> countGroupedByAgent();
+    
+    @Query("SELECT CAST(a.appointmentDateTime AS LocalDate), a.agent.id, a.type, a.status, COUNT(a) FROM Appointment a " +
+           "GROUP BY CAST(a.appointmentDateTime AS LocalDate), a.agent.id, a.type, a.status")
+    List<Object[]> countGroupedByDayAgentTypeAndStatus();
+    
+    // One row per (booking day, customer), for rebuilding engagement sketches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT DISTINCT CAST(a.createdAt AS LocalDate), a.customer.id FROM Appointment a WHERE a.createdAt IS NOT NULL " +
+           "ORDER BY CAST(a.createdAt AS LocalDate)")
+    Stream<Object[]> streamBookingDaysAndCustomers();
+    
+    // Hourly buckets are finer than the daily rollup, so they are grouped from the base table
+    @Query("SELECT CAST(a.appointmentDateTime AS LocalDate), HOUR(a.appointmentDateTime), COUNT(a) FROM Appointment a " +
+           "WHERE a.appointmentDateTime >= :startDate AND a.appointmentDateTime < :endDate " +
+           "AND (:agentId IS NULL OR a.agent.id = :agentId) " +
+           "AND (:type IS NULL OR a.type = :type) " +
+           "AND (:status IS NULL OR a.status = :status) " +
+           "GROUP BY CAST(a.appointmentDateTime AS LocalDate), HOUR(a.appointmentDateTime)")
+    List<Object[]> countByHourFiltered(@Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate,
+                                       @Param("agentId") Long agentId,
+                                       @Param("type") Appointment.AppointmentType type,
+                                       @Param("status") Appointment.AppointmentStatus status);
+    
+    // Ordered by agent so scorecards can be computed one agent at a time
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a.agent.id, a.status, a.appointmentDateTime, a.createdAt FROM Appointment a ORDER BY a.agent.id")
+    Stream<Object[]> streamForScorecards();
 }
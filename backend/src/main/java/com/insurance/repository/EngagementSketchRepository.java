@@ -0,0 +1,26 @@
+package com.insurance.repository;
+
+import com.insurance.entity.EngagementSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EngagementSketchRepository extends JpaRepository<EngagementSketch, Long> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<EngagementSketch> findBySketchDateAndMetric(LocalDate sketchDate, EngagementSketch.Metric metric);
+    
+    @Query("SELECT s.registers FROM EngagementSketch s WHERE s.metric = :metric " +
+           "AND s.sketchDate >= :startDate AND s.sketchDate <= :endDate")
+    List<byte[]> findRegistersInRange(@Param("metric") EngagementSketch.Metric metric,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
+}
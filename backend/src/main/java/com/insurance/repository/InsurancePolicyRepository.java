@@ -2,8 +2,11 @@ package com.insurance.repository;
 
 import com.insurance.entity.InsurancePolicy;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +22,22 @@ public interface InsurancePolicyRepository extends JpaRepository<InsurancePolicy
     List<InsurancePolicy> findByStatus(InsurancePolicy.PolicyStatus status);
     
     List<InsurancePolicy> findByType(InsurancePolicy.PolicyType type);
+    
+    @Query("SELECT p.type, COUNT(p), SUM(p.premium), SUM(p.coverageAmount) FROM InsurancePolicy p GROUP BY p.type")
+    List<Object[]> sumGroupedByType();
+    
+    @Query("SELECT p.status, COUNT(p), SUM(p.premium), SUM(p.coverageAmount) FROM InsurancePolicy p GROUP BY p.status")
+    List<Object[]> sumGroupedByStatus();
+    
+    // Policies with the given status ending in [today, today + 30/60/90 days], counted in one pass
+    @Query("SELECT SUM(CASE WHEN p.endDate <= :within30 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.endDate <= :within60 THEN 1 ELSE 0 END), " +
+           "COUNT(p) " +
+           "FROM InsurancePolicy p WHERE p.status = :status " +
+           "AND p.endDate >= :today AND p.endDate <= :within90")
+    List<Object[]> countExpiringByStatus(@Param("status") InsurancePolicy.PolicyStatus status,
+                                         @Param("today") LocalDate today,
+                                         @Param("within30") LocalDate within30,
+                                         @Param("within60") LocalDate within60,
+                                         @Param("within90") LocalDate within90);
 }
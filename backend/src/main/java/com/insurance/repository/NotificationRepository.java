@@ -1,10 +1,16 @@
 package com.insurance.repository;
 
+import com.insurance.dto.NotificationExportRow;
 import com.insurance.entity.Notification;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -16,4 +22,11 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
     
     Long countByUserIdAndIsReadFalse(Long userId);
+    
+    // Must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.insurance.dto.NotificationExportRow(n.id, u.id, ap.id, n.type, n.subject, n.message, " +
+           "n.isRead, n.emailSent, n.createdAt, n.readAt) " +
+           "FROM Notification n JOIN n.user u LEFT JOIN n.appointment ap ORDER BY n.id")
+    Stream<NotificationExportRow> streamAllForExport();
 }
@@ -2,8 +2,11 @@ package com.insurance.repository;
 
 import com.insurance.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -21,4 +24,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRolesContaining(String role);
     
     List<User> findByIsActiveTrue();
+    
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
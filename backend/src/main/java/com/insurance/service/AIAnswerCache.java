@@ -0,0 +1,122 @@
+package com.insurance.service;
+
+import com.insurance.event.AgentContextChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of AI answers with a time-to-live.
+ * Keys are the normalized question (case, whitespace and punctuation folded) plus the
+ * AgentContextService version, because answers quote the agent data embedded in the prompt.
+ * A new context version clears the cache. Hits, misses and evictions are exported as
+ * ai.answer.cache.* metrics.
+ */
+@Component
+public class AIAnswerCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${ai.cache.ttl-ms:3600000}")
+    private long ttlMs;
+
+    private final AtomicLong contextVersion = new AtomicLong();
+
+    private final LinkedHashMap<String, CachedAnswer> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private Counter hits;
+    private Counter misses;
+    private Counter sizeEvictions;
+    private Counter expiredEvictions;
+    private Counter invalidatedEvictions;
+
+    @PostConstruct
+    public void init() {
+        hits = Counter.builder("ai.answer.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("ai.answer.cache.requests").tag("result", "miss").register(meterRegistry);
+        sizeEvictions = Counter.builder("ai.answer.cache.evictions").tag("cause", "size").register(meterRegistry);
+        expiredEvictions = Counter.builder("ai.answer.cache.evictions").tag("cause", "expired").register(meterRegistry);
+        invalidatedEvictions = Counter.builder("ai.answer.cache.evictions").tag("cause", "invalidated").register(meterRegistry);
+        Gauge.builder("ai.answer.cache.size", this, AIAnswerCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Cache key for a question answered with the given agent context version.
+     */
+    public String keyFor(String question, long agentContextVersion) {
+        return agentContextVersion + "|" + normalize(question);
+    }
+
+    public String get(String key) {
+        synchronized (entries) {
+            CachedAnswer cached = entries.get(key);
+            if (cached == null) {
+                misses.increment();
+                return null;
+            }
+            if (cached.expiresAt() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                expiredEvictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return cached.answer();
+        }
+    }
+
+    public void put(String key, String answer) {
+        // Keys from before a context change would never be read again
+        if (!key.startsWith(contextVersion.get() + "|")) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new CachedAnswer(answer, System.currentTimeMillis() + ttlMs));
+            Iterator<CachedAnswer> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                sizeEvictions.increment();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @EventListener
+    public void onAgentContextChanged(AgentContextChangedEvent event) {
+        contextVersion.set(event.version());
+        synchronized (entries) {
+            invalidatedEvictions.increment(entries.size());
+            entries.clear();
+        }
+    }
+
+    static String normalize(String question) {
+        return question.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    private record CachedAnswer(String answer, long expiresAt) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.insurance.service;
+
+import com.insurance.dto.LatencySummaryDTO;
+import com.insurance.entity.AILatencyBucket;
+import com.insurance.repository.AILatencyBucketRepository;
+import com.insurance.util.LatencyHistogram;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI response-time percentiles per category, kept as hourly log-linear histograms.
+ * Samples are recorded in memory and periodically added to ai_latency_buckets as one row
+ * per non-empty bucket, so summaries never scan ai_query_logs.
+ */
+@Service
+public class AILatencyService {
+
+    public static final String ALL_CATEGORIES = "ALL";
+
+    @Autowired
+    private AILatencyBucketRepository bucketRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${ai.latency.summary-window-hours:24}")
+    private int summaryWindowHours;
+
+    @Value("${ai.latency.retention-days:90}")
+    private int retentionDays;
+
+    private final ConcurrentHashMap<WindowKey, PendingWindow> pending = new ConcurrentHashMap<>();
+
+    // Closed windows taken out of pending by a flush that has not completed yet
+    private final ConcurrentHashMap<WindowKey, PendingWindow> flushing = new ConcurrentHashMap<>();
+
+    // All categories since the last drainRecent() call, for live dashboard updates
+    private final PendingWindow recent = new PendingWindow();
+
+    public void recordSuccess(String category, long responseTimeMs) {
+        window(category).histogram.record(responseTimeMs);
+        recent.histogram.record(responseTimeMs);
+    }
+
+    public void recordError(String category, long responseTimeMs) {
+        PendingWindow window = window(category);
+        window.histogram.record(responseTimeMs);
+        window.errors.incrementAndGet();
+        recent.histogram.record(responseTimeMs);
+        recent.errors.incrementAndGet();
+    }
+
+    /**
+     * Summary of all queries recorded since the previous call, then resets it.
+     */
+    public LatencySummaryDTO drainRecent() {
+        return summarize(recent.histogram.drain(), recent.errors.getAndSet(0));
+    }
+
+    /**
+     * p50/p95/p99, mean and error rate per category over the configured window,
+     * plus an {@value #ALL_CATEGORIES} entry across every category.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, LatencySummaryDTO> summarize() {
+        LocalDateTime since = currentWindowStart().minusHours(summaryWindowHours - 1L);
+        Map<String, long[]> histograms = new HashMap<>();
+        Map<String, Long> errors = new HashMap<>();
+
+        for (Object[] row : bucketRepository.sumByCategoryAndBucket(since)) {
+            String category = (String) row[0];
+            int bucketIndex = (Integer) row[1];
+            long count = ((Number) row[2]).longValue();
+            if (bucketIndex == AILatencyBucket.ERROR_BUCKET) {
+                errors.merge(category, count, Long::sum);
+            } else {
+                histograms.computeIfAbsent(category, c -> new long[LatencyHistogram.BUCKET_COUNT])[bucketIndex] += count;
+            }
+        }
+
+        // Samples not flushed yet
+        Map<WindowKey, PendingWindow> unflushed = new HashMap<>(flushing);
+        unflushed.putAll(pending);
+        unflushed.forEach((key, window) -> {
+            if (!key.windowStart().isBefore(since)) {
+                long[] counts = window.histogram.snapshot();
+                long[] merged = histograms.computeIfAbsent(key.category(), c -> new long[LatencyHistogram.BUCKET_COUNT]);
+                for (int i = 0; i < counts.length; i++) {
+                    merged[i] += counts[i];
+                }
+                errors.merge(key.category(), window.errors.get(), Long::sum);
+            }
+        });
+
+        long[] all = new long[LatencyHistogram.BUCKET_COUNT];
+        Map<String, LatencySummaryDTO> summaries = new TreeMap<>();
+        histograms.forEach((category, counts) -> {
+            for (int i = 0; i < counts.length; i++) {
+                all[i] += counts[i];
+            }
+            summaries.put(category, summarize(counts, errors.getOrDefault(category, 0L)));
+        });
+        long allErrors = errors.values().stream().mapToLong(Long::longValue).sum();
+        summaries.put(ALL_CATEGORIES, summarize(all, allErrors));
+        return summaries;
+    }
+
+    private LatencySummaryDTO summarize(long[] counts, long errorCount) {
+        long count = LatencyHistogram.totalCount(counts);
+        return LatencySummaryDTO.builder()
+                .count(count)
+                .errorCount(errorCount)
+                .errorRate(count > 0 ? (double) errorCount / count : 0.0)
+                .mean(LatencyHistogram.mean(counts))
+                .p50(LatencyHistogram.percentile(counts, 0.50))
+                .p95(LatencyHistogram.percentile(counts, 0.95))
+                .p99(LatencyHistogram.percentile(counts, 0.99))
+                .build();
+    }
+
+    /**
+     * Adds a snapshot of each window to ai_latency_buckets and subtracts it from memory only
+     * once the transaction commits, so a failed write loses nothing. Closed windows are taken
+     * out of pending before their snapshot; one that still receives a late sample is put back.
+     */
+    @Scheduled(fixedDelayString = "${ai.latency.flush-interval-ms:30000}")
+    @Transactional
+    public void flush() {
+        LocalDateTime currentWindow = currentWindowStart();
+        pending.forEach((key, window) -> {
+            boolean closed = key.windowStart().isBefore(currentWindow);
+            if (closed) {
+                if (!pending.remove(key, window)) {
+                    return;
+                }
+                // Still visible to summarize() until the flush completes
+                flushing.put(key, window);
+            }
+            long[] counts = window.histogram.snapshot();
+            long errorCount = window.errors.get();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    bucketRepository.addSamples(key.windowStart(), key.category(), i, counts[i]);
+                }
+            }
+            if (errorCount > 0) {
+                bucketRepository.addSamples(key.windowStart(), key.category(), AILatencyBucket.ERROR_BUCKET, errorCount);
+            }
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        for (int i = 0; i < counts.length; i++) {
+                            if (counts[i] > 0) {
+                                window.histogram.add(i, -counts[i]);
+                            }
+                        }
+                        window.errors.addAndGet(-errorCount);
+                    }
+                    if (closed) {
+                        flushing.remove(key, window);
+                        // Rolled back, or a recorder that fetched the window before the hour turned added to it
+                        if (status != STATUS_COMMITTED || !window.isEmpty()) {
+                            pending.merge(key, window, PendingWindow::mergeFrom);
+                        }
+                    }
+                }
+            });
+        });
+    }
+
+    @Scheduled(cron = "${ai.latency.purge-cron:0 15 4 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        bucketRepository.deleteOlderThan(currentWindowStart().minusDays(retentionDays));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> flush());
+        } catch (Exception e) {
+            System.err.println("Failed to flush AI latency histograms on shutdown: " + e.getMessage());
+        }
+    }
+
+    private PendingWindow window(String category) {
+        String key = category != null ? category : "UNKNOWN";
+        return pending.computeIfAbsent(new WindowKey(currentWindowStart(), key), k -> new PendingWindow());
+    }
+
+    private static LocalDateTime currentWindowStart() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private record WindowKey(LocalDateTime windowStart, String category) {
+    }
+
+    private static class PendingWindow {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+
+        boolean isEmpty() {
+            return errors.get() == 0 && LatencyHistogram.totalCount(histogram.snapshot()) == 0;
+        }
+
+        PendingWindow mergeFrom(PendingWindow other) {
+            long[] counts = other.histogram.snapshot();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    histogram.add(i, counts[i]);
+                }
+            }
+            errors.addAndGet(other.errors.get());
+            return this;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.insurance.service;
+
+import com.insurance.dto.AIQueryResponse;
+import com.insurance.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.scheduler.Schedulers;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for AI query logs. Entries go into a bounded in-memory queue and
+ * a single background thread inserts them in JDBC batches, so neither request threads nor
+ * the WebClient event loop wait on the database. When the queue is full the entry is either
+ * dropped (DROP) or the caller waits up to ai.log.block-timeout-ms for space (BLOCK) before
+ * dropping it. BLOCK only applies to callers that may block: on a Reactor non-blocking thread
+ * (the event loop that completes Gemini calls) a full queue always drops. Remaining entries
+ * are flushed on shutdown.
+ */
+@Component
+public class AIQueryLogWriter {
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO ai_query_logs "
+            + "(user_id, question, answer, is_voice_query, category, response_time, was_helpful, answer_source, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${ai.log.batch-size:200}")
+    private int batchSize;
+
+    @Value("${ai.log.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${ai.log.overflow-policy:DROP}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${ai.log.block-timeout-ms:100}")
+    private long blockTimeoutMs;
+
+    private ArrayBlockingQueue<PendingLog> queue;
+    private TransactionTemplate transactionTemplate;
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+    private Counter failedCounter;
+    private DistributionSummary batchSizeSummary;
+    private Thread writerThread;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("ai.log.queue.depth", queue, Collection::size)
+                .description("AI query logs waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("ai.log.queue.remaining", queue, ArrayBlockingQueue::remainingCapacity)
+                .description("Free slots in the AI query log queue")
+                .register(meterRegistry);
+        writtenCounter = Counter.builder("ai.log.written")
+                .description("AI query logs inserted")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("ai.log.dropped")
+                .description("AI query logs dropped because the queue was full")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("ai.log.failed")
+                .description("AI query logs lost because their batch insert failed")
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("ai.log.batch.size")
+                .description("Rows per AI query log batch insert")
+                .register(meterRegistry);
+
+        writerThread = new Thread(this::run, "ai-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // The writer notices within one poll interval; interrupting it could abort an insert
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        // Whatever the writer had not taken yet
+        List<PendingLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            insert(batch);
+            batch.clear();
+        }
+    }
+
+    public void write(Long userId, String question, String answer, Boolean isVoiceQuery,
+                      String category, int responseTime, AIQueryResponse.AnswerSource answerSource) {
+        PendingLog log = new PendingLog(userId, question, answer, Boolean.TRUE.equals(isVoiceQuery),
+                category, responseTime, answerSource, LocalDateTime.now());
+        boolean queued;
+        if (overflowPolicy == OverflowPolicy.BLOCK && !Schedulers.isInNonBlockingThread()) {
+            try {
+                queued = queue.offer(log, blockTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+        } else {
+            queued = queue.offer(log);
+        }
+        if (!queued) {
+            droppedCounter.increment();
+            System.err.println("AI query log queue full, dropping log entry");
+        }
+    }
+
+    private void run() {
+        List<PendingLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                insert(batch);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void insert(List<PendingLog> batch) {
+        try {
+            Set<Long> knownUsers = knownUserIds(batch);
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, log) -> {
+                        // Anonymous queries and unknown user ids are stored without a user
+                        if (log.userId() != null && knownUsers.contains(log.userId())) {
+                            statement.setLong(1, log.userId());
+                        } else {
+                            statement.setNull(1, Types.BIGINT);
+                        }
+                        statement.setString(2, log.question());
+                        statement.setString(3, log.answer());
+                        statement.setBoolean(4, log.isVoiceQuery());
+                        statement.setString(5, log.category());
+                        statement.setInt(6, log.responseTime());
+                        statement.setBoolean(7, true);
+                        statement.setString(8, log.answerSource() != null ? log.answerSource().name() : null);
+                        statement.setTimestamp(9, Timestamp.valueOf(log.createdAt()));
+                    }));
+            writtenCounter.increment(batch.size());
+            batchSizeSummary.record(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            System.err.println("Failed to save " + batch.size() + " AI query logs: " + e.getMessage());
+        }
+    }
+
+    private Set<Long> knownUserIds(List<PendingLog> batch) {
+        Set<Long> userIds = new HashSet<>();
+        for (PendingLog log : batch) {
+            if (log.userId() != null) {
+                userIds.add(log.userId());
+            }
+        }
+        return userIds.isEmpty() ? userIds : new HashSet<>(userRepository.findExistingIds(userIds));
+    }
+
+    private record PendingLog(Long userId, String question, String answer, boolean isVoiceQuery,
+                              String category, int responseTime, AIQueryResponse.AnswerSource answerSource,
+                              LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.insurance.service;
+
+import com.insurance.util.TokenBucketLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admission control for the AI endpoints. Signed-in users get their own token bucket with the
+ * larger ai.rate-limit.user.* allowance; anonymous callers are limited per client IP with the
+ * smaller ai.rate-limit.anonymous.* allowance, so scrapers cannot use up capacity meant for
+ * customers.
+ */
+@Component
+public class AIRateLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.rate-limit.user.capacity:30}")
+    private int userCapacity;
+
+    @Value("${ai.rate-limit.user.refill-per-minute:30}")
+    private double userRefillPerMinute;
+
+    @Value("${ai.rate-limit.anonymous.capacity:10}")
+    private int anonymousCapacity;
+
+    @Value("${ai.rate-limit.anonymous.refill-per-minute:6}")
+    private double anonymousRefillPerMinute;
+
+    @Value("${ai.rate-limit.stripes:64}")
+    private int stripes;
+
+    @Value("${ai.rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    private TokenBucketLimiter limiter;
+
+    @PostConstruct
+    public void init() {
+        limiter = new TokenBucketLimiter(stripes, maxBuckets);
+        Gauge.builder("ai.rate-limit.buckets", limiter, TokenBucketLimiter::size)
+                .description("Clients with an active AI rate-limit bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns 0 if the request may proceed, otherwise milliseconds until it could be retried.
+     */
+    public long admit(String username, String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+        boolean signedIn = username != null;
+        long waitMillis = signedIn
+                ? limiter.tryAcquire("user:" + username, "overflow:user", userCapacity, userRefillPerMinute / 60.0)
+                : limiter.tryAcquire("ip:" + clientIp, "overflow:anonymous", anonymousCapacity, anonymousRefillPerMinute / 60.0);
+        if (waitMillis > 0) {
+            meterRegistry.counter("ai.rate-limit.rejected", "client", signedIn ? "user" : "anonymous").increment();
+        }
+        return waitMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${ai.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        // A bucket idle for a full refill is back at capacity, the same as a new one
+        double slowestRefillPerMinute = Math.min(userRefillPerMinute, anonymousRefillPerMinute);
+        int largestCapacity = Math.max(userCapacity, anonymousCapacity);
+        long fullRefillMillis = (long) Math.ceil(largestCapacity / slowestRefillPerMinute * 60_000);
+        limiter.evictIdle(fullRefillMillis);
+    }
+}
@@ -2,36 +2,60 @@ package com.insurance.service;
 
 import com.insurance.dto.AIQueryRequest;
 import com.insurance.dto.AIQueryResponse;
-import com.insurance.entity.AIQueryLog;
-import com.insurance.entity.Agent;
-import com.insurance.entity.User;
-import com.insurance.repository.AIQueryLogRepository;
-import com.insurance.repository.AgentRepository;
-import com.insurance.repository.UserRepository;
+import com.insurance.util.GeminiResponseParser;
+import com.insurance.util.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class AIService {
     
     @Autowired
-    private AIQueryLogRepository queryLogRepository;
+    private AIQueryLogWriter logWriter;
     
     @Autowired
-    private UserRepository userRepository;
+    private AgentContextService agentContextService;
     
     @Autowired
-    private AgentRepository agentRepository;
+    private AILatencyService latencyService;
+    
+    @Autowired
+    private AIAnswerCache answerCache;
+    
+    @Autowired
+    private GeminiCallGuard geminiCallGuard;
+    
+    @Autowired
+    private QueryClassifier queryClassifier;
+    
+    @Autowired
+    private LocalAnswerIndex localAnswerIndex;
+    
+    @Autowired
+    private EngagementService engagementService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
     
     @Value("${gemini.api.key}")
     private String geminiApiKey;
@@ -39,167 +63,317 @@ public class AIService {
     @Value("${gemini.api.url}")
     private String geminiApiUrl;
     
+    // Defaults to gemini.api.url with :generateContent replaced by :streamGenerateContent
+    @Value("${gemini.api.stream-url:}")
+    private String geminiStreamApiUrl;
+    
+    // Returned when Gemini responds without any text
+    static final String REPHRASE_ANSWER = "I'm here to help you with insurance-related questions. Could you please rephrase your query?";
+    
+    // Served when Gemini is unavailable, keyed by query category
+    private static final Map<String, String> FALLBACK_ANSWERS = Map.of(
+        "LIFE_INSURANCE", "Life insurance provides financial protection for your loved ones. We offer Term Life (affordable coverage for specific periods), Whole Life (lifetime coverage with cash value), and Universal Life (flexible premiums and death benefits). Our agents can help you choose the right policy for your age, health, and financial goals.",
+        "HEALTH_INSURANCE", "Our health insurance plans cover medical expenses, hospital stays, prescriptions, and preventive care, with individual, family, and corporate group options at different deductibles and coverage levels. A health insurance specialist can help you find the right plan.",
+        "AUTO_INSURANCE", "Our auto insurance covers collision, liability, theft, and roadside assistance, with a range of deductible options. An auto insurance specialist can help you find the right coverage at the best price.",
+        "HOME_INSURANCE", "Our home insurance protects your property and belongings and includes liability coverage. An agent can review your home and recommend the right level of protection.",
+        "CLAIMS", "You can file a claim online through your dashboard, by calling our 24/7 claims hotline, or by booking an appointment with a claims specialist. Have your policy number, incident details, and supporting documents ready; claims are typically processed within 5-7 business days.",
+        "APPOINTMENT", "You can book an in-person, phone, or video consultation with one of our agents from the Book Appointment page.",
+        "POLICY_INQUIRY", "Your policy details, coverage, and renewal dates are available in your dashboard. For changes to your coverage, an agent can walk you through the options.",
+        "PRICING", "Premiums depend on the type of coverage, the amount insured, and your personal details. An agent can prepare a personalised quote for you.",
+        "GENERAL", "We offer Life, Health, Auto, Home, and Business insurance. Our AI assistant is busy right now, but our agents are happy to help with any question."
+    );
+    
     private final WebClient webClient;
     
-    public AIService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    // Concurrent identical questions share one outbound Gemini call
+    private final SingleFlight<String, String> geminiCalls = new SingleFlight<>();
+    
+    public AIService(@Qualifier("geminiWebClient") WebClient webClient) {
+        this.webClient = webClient;
     }
     
-    @Transactional
-    public AIQueryResponse processQuery(AIQueryRequest request) {
+    /**
+     * Answers a question without holding the calling thread for the Gemini round trip.
+     * Cache and local index hits complete immediately; misses complete on the WebClient event
+     * loop, and the query log is written by {@link AIQueryLogWriter} on its own threads.
+     */
+    public CompletableFuture<AIQueryResponse> processQuery(AIQueryRequest request) {
         Instant startTime = Instant.now();
         
-        User user = null;
-        if (request.getUserId() != null) {
-            user = userRepository.findById(request.getUserId()).orElse(null);
-        }
-        
-        // Enhanced prompt for insurance context
-        String enhancedPrompt = buildInsurancePrompt(request.getQuestion());
-        System.out.println("=== Enhanced Prompt ===");
-        System.out.println(enhancedPrompt.substring(0, Math.min(enhancedPrompt.length(), 300)) + "...");
+        // Classify up front so failures are attributed to a category as well
+        QueryClassifier.Classification classification = queryClassifier.classify(request.getQuestion());
+        String category = classification.category();
+        // In memory, and independent of whether the query log is written
+        engagementService.recordAIUser(request.getUserId());
         
+        AIQueryResponse.AnswerSource source = AIQueryResponse.AnswerSource.LLM;
+        CompletableFuture<String> answer;
         try {
-            // Call Gemini API
-            String answer = callGeminiAPI(enhancedPrompt);
+            // Serve repeated questions from the cache or the local index; only a miss builds the prompt and calls Gemini
+            boolean bypassCache = Boolean.TRUE.equals(request.getBypassCache());
+            AgentContextService.AgentContext agentContext = agentContextService.current();
+            String cacheKey = answerCache.keyFor(request.getQuestion(), agentContext.version());
+            String cached = bypassCache ? null : answerCache.get(cacheKey);
+            Optional<String> local = cached != null || bypassCache
+                    ? Optional.empty()
+                    : localAnswerIndex.findAnswer(request.getQuestion());
+            if (cached != null) {
+                source = AIQueryResponse.AnswerSource.CACHE;
+                answer = CompletableFuture.completedFuture(cached);
+            } else if (local.isPresent()) {
+                source = AIQueryResponse.AnswerSource.LOCAL_INDEX;
+                answer = CompletableFuture.completedFuture(local.get());
+            } else {
+                SingleFlight.Call<String> call = geminiCalls.execute(cacheKey, () -> {
+                    // Enhanced prompt for insurance context
+                    String enhancedPrompt = buildInsurancePrompt(request.getQuestion(), agentContext);
+                    System.out.println("=== Enhanced Prompt ===");
+                    System.out.println(enhancedPrompt.substring(0, Math.min(enhancedPrompt.length(), 300)) + "...");
+                    
+                    // Call Gemini API
+                    return geminiCallGuard.guard(() -> callGeminiAPI(enhancedPrompt))
+                            .doOnNext(geminiAnswer -> {
+                                if (!REPHRASE_ANSWER.equals(geminiAnswer)) {
+                                    answerCache.put(cacheKey, geminiAnswer);
+                                }
+                            })
+                            .toFuture();
+                });
+                if (call.shared()) {
+                    Counter.builder("ai.gemini.coalesced")
+                            .description("Queries answered by joining an identical in-flight Gemini call")
+                            .register(meterRegistry)
+                            .increment();
+                }
+                answer = call.result();
+            }
+        } catch (Exception e) {
+            answer = CompletableFuture.failedFuture(e);
+        }
+        
+        AIQueryResponse.AnswerSource answerSource = source;
+        return answer.handle((text, error) -> {
+            int responseTime = (int) Duration.between(startTime, Instant.now()).toMillis();
+            if (error != null) {
+                latencyService.recordError(category, responseTime);
+                
+                // Gemini unavailable, rejected or too slow: answer from the category template
+                return AIQueryResponse.builder()
+                        .answer(fallbackAnswer(category))
+                        .category(category)
+                        .responseTime(responseTime)
+                        .canBookAppointment(true)
+                        .suggestedAction("Schedule an appointment with our agent")
+                        .answerSource(AIQueryResponse.AnswerSource.FALLBACK)
+                        .build();
+            }
             
-            // Extract category and action suggestion
-            String category = categorizeQuery(request.getQuestion());
-            boolean canBookAppointment = detectAppointmentIntent(request.getQuestion());
+            // Extract action suggestion
+            boolean canBookAppointment = classification.hasIntent(QueryClassifier.APPOINTMENT_INTENT);
             String suggestedAction = canBookAppointment ? "Schedule an appointment with our agent" : null;
             
-            int responseTime = (int) Duration.between(startTime, Instant.now()).toMillis();
+            latencyService.recordSuccess(category, responseTime);
             
             // Log the query
-            AIQueryLog log = AIQueryLog.builder()
-                    .user(user)
-                    .question(request.getQuestion())
-                    .answer(answer)
-                    .isVoiceQuery(request.getIsVoiceQuery())
-                    .category(category)
-                    .responseTime(responseTime)
-                    .wasHelpful(true)
-                    .build();
-            
-            queryLogRepository.save(log);
+            logWriter.write(request.getUserId(), request.getQuestion(), text, request.getIsVoiceQuery(),
+                    category, responseTime, answerSource);
             
             return AIQueryResponse.builder()
-                    .answer(answer)
+                    .answer(text)
                     .category(category)
                     .responseTime(responseTime)
                     .canBookAppointment(canBookAppointment)
                     .suggestedAction(suggestedAction)
+                    .answerSource(answerSource)
                     .build();
-                    
-        } catch (Exception e) {
-            return AIQueryResponse.builder()
-                    .answer("I apologize, but I'm having trouble processing your request right now. Please try again or contact our support team.")
-                    .category("ERROR")
-                    .responseTime((int) Duration.between(startTime, Instant.now()).toMillis())
-                    .canBookAppointment(false)
-                    .build();
-        }
+        });
     }
     
-    private String callGeminiAPI(String prompt) {
-        try {
-            // Log API configuration for debugging
-            System.out.println("=== Gemini API Debug Info ===");
-            System.out.println("API URL: " + geminiApiUrl);
-            System.out.println("API Key present: " + (geminiApiKey != null && !geminiApiKey.isEmpty()));
-            System.out.println("API Key length: " + (geminiApiKey != null ? geminiApiKey.length() : 0));
-            System.out.println("API Key starts with: " + (geminiApiKey != null && geminiApiKey.length() > 10 ? geminiApiKey.substring(0, 10) + "..." : "N/A"));
-            
-            Map<String, Object> requestBody = Map.of(
-                "contents", new Object[]{
-                    Map.of(
-                        "parts", new Object[]{
-                            Map.of("text", prompt)
-                        }
-                    )
-                }
-            );
-            
-            String fullUrl = geminiApiUrl + "?key=" + geminiApiKey;
-            System.out.println("Full URL: " + fullUrl.substring(0, Math.min(fullUrl.length(), 100)) + "...");
-            
-            String response = webClient.post()
-                    .uri(fullUrl)
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-            
-            System.out.println("Response received: " + (response != null ? response.substring(0, Math.min(response.length(), 200)) : "NULL"));
-            
-            // Parse the response - this is simplified
-            // In production, use proper JSON parsing
-            return extractTextFromGeminiResponse(response);
-            
-        } catch (Exception e) {
-            System.err.println("=== Gemini API Error ===");
-            System.err.println("Error type: " + e.getClass().getName());
-            System.err.println("Error message: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to call Gemini API: " + e.getMessage(), e);
+    /**
+     * Streams the answer as Server-Sent Events: a leading "meta" event with the category and
+     * appointment intent, one "chunk" event per partial text from Gemini's streaming API, then
+     * "done" with the answer source (or "error"). The query log is written once the stream completes.
+     */
+    public Flux<ServerSentEvent<Object>> streamQuery(AIQueryRequest request) {
+        Instant startTime = Instant.now();
+        QueryClassifier.Classification classification = queryClassifier.classify(request.getQuestion());
+        String category = classification.category();
+        boolean canBookAppointment = classification.hasIntent(QueryClassifier.APPOINTMENT_INTENT);
+        engagementService.recordAIUser(request.getUserId());
+        
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("category", category);
+        meta.put("canBookAppointment", canBookAppointment);
+        meta.put("suggestedAction", canBookAppointment ? "Schedule an appointment with our agent" : null);
+        
+        AgentContextService.AgentContext agentContext = agentContextService.current();
+        String cacheKey = answerCache.keyFor(request.getQuestion(), agentContext.version());
+        boolean bypassCache = Boolean.TRUE.equals(request.getBypassCache());
+        String stored = bypassCache ? null : answerCache.get(cacheKey);
+        AIQueryResponse.AnswerSource source = AIQueryResponse.AnswerSource.CACHE;
+        if (stored == null && !bypassCache) {
+            stored = localAnswerIndex.findAnswer(request.getQuestion()).orElse(null);
+            source = AIQueryResponse.AnswerSource.LOCAL_INDEX;
         }
+        if (stored == null) {
+            source = AIQueryResponse.AnswerSource.LLM;
+        }
+        AIQueryResponse.AnswerSource answerSource = source;
+        // Stored answers are sent as a single chunk
+        Flux<String> chunks = stored != null
+                ? Flux.just(stored)
+                : geminiCallGuard.guardStream(() -> streamGeminiAPI(buildInsurancePrompt(request.getQuestion(), agentContext)));
+        
+        StringBuilder answer = new StringBuilder();
+        AtomicLong firstChunkMs = new AtomicLong(-1);
+        Flux<ServerSentEvent<Object>> body = chunks
+                .filter(chunk -> !chunk.isEmpty())
+                .map(chunk -> {
+                    if (firstChunkMs.compareAndSet(-1, Duration.between(startTime, Instant.now()).toMillis())) {
+                        Timer.builder("ai.stream.first-chunk")
+                                .description("Time from request to the first streamed answer chunk")
+                                .register(meterRegistry)
+                                .record(Duration.ofMillis(firstChunkMs.get()));
+                    }
+                    answer.append(chunk);
+                    return ServerSentEvent.<Object>builder(Map.of("text", chunk)).event("chunk").build();
+                })
+                .concatWith(Flux.defer(() -> {
+                    int responseTime = (int) Duration.between(startTime, Instant.now()).toMillis();
+                    latencyService.recordSuccess(category, responseTime);
+                    // Gemini finished without any text (e.g. blocked for safety): same reply as processQuery, not cached
+                    boolean empty = answer.length() == 0;
+                    String text = empty ? REPHRASE_ANSWER : answer.toString();
+                    if (answerSource == AIQueryResponse.AnswerSource.LLM && !empty) {
+                        answerCache.put(cacheKey, text);
+                    }
+                    logWriter.write(request.getUserId(), request.getQuestion(), text, request.getIsVoiceQuery(),
+                            category, responseTime, answerSource);
+                    
+                    Map<String, Object> done = new LinkedHashMap<>();
+                    done.put("responseTime", responseTime);
+                    done.put("firstChunkTime", firstChunkMs.get());
+                    done.put("answerSource", answerSource);
+                    ServerSentEvent<Object> doneEvent = ServerSentEvent.<Object>builder(done).event("done").build();
+                    return empty
+                            ? Flux.just(ServerSentEvent.<Object>builder(Map.of("text", text)).event("chunk").build(), doneEvent)
+                            : Flux.just(doneEvent);
+                }))
+                .onErrorResume(e -> {
+                    int responseTime = (int) Duration.between(startTime, Instant.now()).toMillis();
+                    latencyService.recordError(category, responseTime);
+                    if (answer.length() == 0) {
+                        // Nothing streamed yet, so the template answer can stand in for the whole reply
+                        Map<String, Object> done = new LinkedHashMap<>();
+                        done.put("responseTime", responseTime);
+                        done.put("answerSource", AIQueryResponse.AnswerSource.FALLBACK);
+                        return Flux.just(
+                                ServerSentEvent.<Object>builder(Map.of("text", fallbackAnswer(category))).event("chunk").build(),
+                                ServerSentEvent.<Object>builder(done).event("done").build());
+                    }
+                    return Mono.just(ServerSentEvent.<Object>builder(Map.of(
+                            "message", "I apologize, but I'm having trouble processing your request right now. Please try again or contact our support team."))
+                            .event("error")
+                            .build());
+                });
+        
+        return Flux.concat(Mono.just(ServerSentEvent.<Object>builder(meta).event("meta").build()), body);
     }
     
-    private String extractTextFromGeminiResponse(String response) {
-        try {
-            // Find the text content within the response
-            int textStart = response.indexOf("\"text\":");
-            if (textStart != -1) {
-                // Find the start of the actual text content
-                int contentStart = response.indexOf("\"", textStart + 8);
-                
-                // Find the end by looking for the closing quote, handling escaped quotes
-                int contentEnd = contentStart + 1;
-                while (contentEnd < response.length()) {
-                    if (response.charAt(contentEnd) == '"' && response.charAt(contentEnd - 1) != '\\') {
-                        break;
+    // Each SSE data payload from streamGenerateContent is a partial GenerateContentResponse
+    private Flux<String> streamGeminiAPI(String prompt) {
+        Map<String, Object> requestBody = Map.of(
+            "contents", new Object[]{
+                Map.of(
+                    "parts", new Object[]{
+                        Map.of("text", prompt)
                     }
-                    contentEnd++;
-                }
-                
-                if (contentEnd < response.length()) {
-                    String text = response.substring(contentStart + 1, contentEnd);
-                    // Unescape common escape sequences
-                    return text.replace("\\n", "\n")
-                               .replace("\\\"", "\"")
-                               .replace("\\r", "\r")
-                               .replace("\\t", "\t")
-                               .replace("\\\\", "\\");
-                }
+                )
             }
-        } catch (Exception e) {
-            System.err.println("Error extracting text from Gemini response: " + e.getMessage());
+        );
+        
+        return webClient.post()
+                .uri(geminiStreamUrl() + "?alt=sse&key=" + geminiApiKey)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .mapNotNull(ServerSentEvent::data)
+                .map(GeminiResponseParser::parse)
+                .doOnNext(this::recordUsage)
+                .map(GeminiResponseParser.Result::text)
+                .doOnError(e -> System.err.println("Gemini streaming error: " + e.getMessage()));
+    }
+    
+    private String geminiStreamUrl() {
+        if (geminiStreamApiUrl != null && !geminiStreamApiUrl.isBlank()) {
+            return geminiStreamApiUrl;
         }
-        return "I'm here to help you with insurance-related questions. Could you please rephrase your query?";
+        return geminiApiUrl.replace(":generateContent", ":streamGenerateContent");
     }
     
-    private String buildInsurancePrompt(String question) {
-        // Get real-time data from database
-        List<Agent> agents = agentRepository.findAll();
-        int totalAgents = agents.size();
-        long availableAgents = agents.stream().filter(Agent::getIsAvailable).count();
+    private Mono<String> callGeminiAPI(String prompt) {
+        // Log API configuration for debugging
+        System.out.println("=== Gemini API Debug Info ===");
+        System.out.println("API URL: " + geminiApiUrl);
+        System.out.println("API Key present: " + (geminiApiKey != null && !geminiApiKey.isEmpty()));
+        System.out.println("API Key length: " + (geminiApiKey != null ? geminiApiKey.length() : 0));
+        System.out.println("API Key starts with: " + (geminiApiKey != null && geminiApiKey.length() > 10 ? geminiApiKey.substring(0, 10) + "..." : "N/A"));
         
-        StringBuilder agentInfo = new StringBuilder();
-        agentInfo.append("\n\nCurrent Agent Information:");
-        agentInfo.append("\n- Total Agents: ").append(totalAgents);
-        agentInfo.append("\n- Available Agents: ").append(availableAgents);
+        Map<String, Object> requestBody = Map.of(
+            "contents", new Object[]{
+                Map.of(
+                    "parts", new Object[]{
+                        Map.of("text", prompt)
+                    }
+                )
+            }
+        );
         
-        if (!agents.isEmpty()) {
-            agentInfo.append("\n\nOur Agents:");
-            agents.stream().limit(5).forEach(agent -> {
-                agentInfo.append("\n  • ").append(agent.getUser().getFullName())
-                         .append(" - ").append(agent.getSpecialization())
-                         .append(" (").append(agent.getIsAvailable() ? "Available" : "Busy").append(")")
-                         .append(" - ").append(agent.getExperienceYears()).append(" years experience");
-            });
-        }
+        String fullUrl = geminiApiUrl + "?key=" + geminiApiKey;
+        System.out.println("Full URL: " + fullUrl.substring(0, Math.min(fullUrl.length(), 100)) + "...");
         
+        return webClient.post()
+                .uri(fullUrl)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .map(response -> {
+                    GeminiResponseParser.Result result = GeminiResponseParser.parse(response);
+                    System.out.println("Response received: " + response.length + " bytes, finishReason=" + result.finishReason());
+                    return textOrFallback(result);
+                })
+                .onErrorMap(e -> {
+                    System.err.println("Gemini API error: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+                    return new RuntimeException("Failed to call Gemini API: " + e.getMessage(), e);
+                });
+    }
+    
+    private String textOrFallback(GeminiResponseParser.Result result) {
+        recordUsage(result);
+        return result.hasText()
+                ? result.text()
+                : REPHRASE_ANSWER;
+    }
+    
+    // Streamed chunks repeat the running usage, so only the final chunk (with a finish reason) counts
+    private void recordUsage(GeminiResponseParser.Result result) {
+        if (result.finishReason() == null) {
+            return;
+        }
+        meterRegistry.counter("ai.gemini.finish", "reason", result.finishReason()).increment();
+        if (result.promptTokens() != null) {
+            meterRegistry.counter("ai.gemini.tokens", "type", "prompt").increment(result.promptTokens());
+        }
+        if (result.candidateTokens() != null) {
+            meterRegistry.counter("ai.gemini.tokens", "type", "candidates").increment(result.candidateTokens());
+        }
+    }
+    
+    private String buildInsurancePrompt(String question, AgentContextService.AgentContext agentContext) {
+        // Agent data comes from the precomputed snapshot, so building the prompt does no DB work
         return "You are an AI assistant for an online corporate insurance system. " +
                "Your role is to help customers understand insurance products, policies, claims, and appointments. " +
                "Be professional, friendly, and concise. Use the REAL data provided below." +
@@ -209,7 +383,7 @@ public class AIService {
                "\n- Auto Insurance: Comprehensive and collision coverage for vehicles" +
                "\n- Home Insurance: Property, contents, and liability coverage" +
                "\n- Business Insurance: Commercial property, liability, and workers comp" +
-               agentInfo.toString() +
+               agentContext.promptBlock() +
                "\n\nOur specialized agents are available to help with:" +
                "\n- Personalized policy recommendations" +
                "\n- Claims assistance and guidance" +
@@ -224,42 +398,7 @@ public class AIService {
                "\n\nProvide a clear, helpful answer in 2-4 sentences using the REAL data above. Be conversational, warm, and natural.";
     }
     
-    private String categorizeQuery(String question) {
-        String lowerQuestion = question.toLowerCase();
-        
-        if (lowerQuestion.contains("life insurance") || lowerQuestion.contains("term insurance")) {
-            return "LIFE_INSURANCE";
-        } else if (lowerQuestion.contains("health") || lowerQuestion.contains("medical")) {
-            return "HEALTH_INSURANCE";
-        } else if (lowerQuestion.contains("auto") || lowerQuestion.contains("car") || lowerQuestion.contains("vehicle")) {
-            return "AUTO_INSURANCE";
-        } else if (lowerQuestion.contains("home") || lowerQuestion.contains("property")) {
-            return "HOME_INSURANCE";
-        } else if (lowerQuestion.contains("claim")) {
-            return "CLAIMS";
-        } else if (lowerQuestion.contains("appointment") || lowerQuestion.contains("schedule") || lowerQuestion.contains("meeting")) {
-            return "APPOINTMENT";
-        } else if (lowerQuestion.contains("policy") || lowerQuestion.contains("coverage")) {
-            return "POLICY_INQUIRY";
-        } else if (lowerQuestion.contains("premium") || lowerQuestion.contains("price") || lowerQuestion.contains("cost")) {
-            return "PRICING";
-        } else {
-            return "GENERAL";
-        }
-    }
-    
-    private boolean detectAppointmentIntent(String question) {
-        String lowerQuestion = question.toLowerCase();
-        return lowerQuestion.contains("appointment") || 
-               lowerQuestion.contains("schedule") || 
-               lowerQuestion.contains("book") ||
-               lowerQuestion.contains("meet") || 
-               lowerQuestion.contains("talk to") ||
-               lowerQuestion.contains("speak to") ||
-               lowerQuestion.contains("agent") ||
-               lowerQuestion.contains("consultation") ||
-               lowerQuestion.contains("discuss") ||
-               lowerQuestion.contains("call me") ||
-               lowerQuestion.contains("contact");
+    private String fallbackAnswer(String category) {
+        return FALLBACK_ANSWERS.getOrDefault(category, FALLBACK_ANSWERS.get("GENERAL"));
     }
 }
@@ -0,0 +1,110 @@
+package com.insurance.service;
+
+import com.insurance.event.AgentContextChangedEvent;
+import com.insurance.event.AgentRosterChangedEvent;
+import com.insurance.repository.AgentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Precomputed agent summary embedded in every AI prompt.
+ * The block is built from three small aggregate queries and held as an immutable snapshot, so
+ * prompt assembly does no database work. It is rebuilt after agent changes committed through
+ * AgentService and on a short schedule to pick up anything else (e.g. renamed users).
+ * The version only changes when the text does, and is part of the AI answer cache key.
+ */
+@Service
+public class AgentContextService {
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${ai.agent-context.listed-agents:5}")
+    private int listedAgents;
+
+    @Value("${ai.agent-context.top-specializations:3}")
+    private int topSpecializations;
+
+    private volatile AgentContext context;
+
+    public record AgentContext(long version, String promptBlock) {
+    }
+
+    public AgentContext current() {
+        AgentContext current = context;
+        if (current == null) {
+            rebuild();
+            current = context;
+        }
+        return current;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgentRosterChanged(AgentRosterChangedEvent event) {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${ai.agent-context.refresh-interval-ms:60000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            System.err.println("Agent context rebuild failed: " + e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        String promptBlock = buildPromptBlock();
+        AgentContext previous = context;
+        if (previous != null && previous.promptBlock().equals(promptBlock)) {
+            return;
+        }
+        long version = previous != null ? previous.version() + 1 : 1;
+        context = new AgentContext(version, promptBlock);
+        eventPublisher.publishEvent(new AgentContextChangedEvent(version));
+    }
+
+    private String buildPromptBlock() {
+        Object[] counts = agentRepository.countTotalAndAvailable().get(0);
+        long totalAgents = counts[0] != null ? ((Number) counts[0]).longValue() : 0;
+        long availableAgents = counts[1] != null ? ((Number) counts[1]).longValue() : 0;
+
+        StringBuilder agentInfo = new StringBuilder();
+        agentInfo.append("\n\nCurrent Agent Information:");
+        agentInfo.append("\n- Total Agents: ").append(totalAgents);
+        agentInfo.append("\n- Available Agents: ").append(availableAgents);
+
+        List<Object[]> specializations = agentRepository.countGroupedBySpecialization(PageRequest.of(0, topSpecializations));
+        if (!specializations.isEmpty()) {
+            agentInfo.append("\n- Top Specializations: ");
+            for (int i = 0; i < specializations.size(); i++) {
+                Object[] row = specializations.get(i);
+                agentInfo.append(i > 0 ? ", " : "").append(row[0]).append(" (").append(row[1]).append(")");
+            }
+        }
+
+        List<Object[]> agents = agentRepository.findPromptSummaries(PageRequest.of(0, listedAgents));
+        if (!agents.isEmpty()) {
+            agentInfo.append("\n\nOur Agents:");
+            for (Object[] agent : agents) {
+                agentInfo.append("\n  • ").append(agent[0])
+                         .append(" - ").append(agent[1])
+                         .append(" (").append(Boolean.TRUE.equals(agent[2]) ? "Available" : "Busy").append(")")
+                         .append(" - ").append(agent[3]).append(" years experience");
+            }
+        }
+        return agentInfo.toString();
+    }
+}
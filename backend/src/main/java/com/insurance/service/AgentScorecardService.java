@@ -0,0 +1,224 @@
+package com.insurance.service;
+
+import com.insurance.dto.AgentScorecardDTO;
+import com.insurance.entity.AgentScorecard;
+import com.insurance.entity.Appointment;
+import com.insurance.repository.AgentScorecardRepository;
+import com.insurance.repository.AppointmentRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Per-agent performance scorecards computed by a nightly batch and stored in agent_scorecards.
+ * The batch makes one streaming pass over appointments ordered by agent and holds only the
+ * current agent's figures in memory; dashboards read the stored rows and never run it on demand.
+ */
+@Service
+public class AgentScorecardService {
+
+    @Autowired
+    private AgentScorecardRepository scorecardRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${agents.scorecards.busiest-hours:3}")
+    private int busiestHourCount;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AgentScorecardDTO> getAllScorecards() {
+        return scorecardRepository.findAll().stream()
+                .sorted(Comparator.comparing(AgentScorecard::getAgentId))
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public AgentScorecardDTO getScorecard(Long agentId) {
+        AgentScorecard scorecard = scorecardRepository.findByAgentId(agentId)
+                .orElseThrow(() -> new RuntimeException("Scorecard not found for agent: " + agentId));
+        return convertToDTO(scorecard);
+    }
+
+    /**
+     * Recomputes every scorecard and returns the number of agents scored.
+     */
+    @Transactional
+    public int recompute() {
+        LocalDateTime computedAt = LocalDateTime.now();
+        Map<Long, AgentScorecard> existing = new HashMap<>();
+        scorecardRepository.findAll().forEach(scorecard -> existing.put(scorecard.getAgentId(), scorecard));
+
+        List<AgentScorecard> toSave = new ArrayList<>();
+        try (Stream<Object[]> rows = appointmentRepository.streamForScorecards()) {
+            Accumulator current = null;
+            for (Iterator<Object[]> iterator = rows.iterator(); iterator.hasNext(); ) {
+                Object[] row = iterator.next();
+                Long agentId = (Long) row[0];
+                if (current == null || !current.agentId.equals(agentId)) {
+                    if (current != null) {
+                        toSave.add(current.applyTo(existing.remove(current.agentId), computedAt, busiestHourCount));
+                    }
+                    current = new Accumulator(agentId);
+                }
+                current.add((Appointment.AppointmentStatus) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]);
+            }
+            if (current != null) {
+                toSave.add(current.applyTo(existing.remove(current.agentId), computedAt, busiestHourCount));
+            }
+        }
+
+        // Agents with no appointments left
+        scorecardRepository.deleteAll(existing.values());
+        scorecardRepository.saveAll(toSave);
+        System.out.println("Agent scorecards recomputed for " + toSave.size() + " agents");
+        return toSave.size();
+    }
+
+    @Scheduled(cron = "${agents.scorecards.cron:0 0 2 * * *}")
+    public void scheduledRecompute() {
+        try {
+            // Self-invocation bypasses the proxy; the streaming query needs a transaction
+            transactionTemplate.execute(status -> recompute());
+        } catch (Exception e) {
+            System.err.println("Agent scorecard batch failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Computes scorecards on first start so they are available before the first nightly run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void computeIfEmpty() {
+        if (scorecardRepository.count() == 0 && appointmentRepository.count() > 0) {
+            scheduledRecompute();
+        }
+    }
+
+    private AgentScorecardDTO convertToDTO(AgentScorecard scorecard) {
+        List<Integer> busiestHours = new ArrayList<>();
+        if (scorecard.getBusiestHours() != null && !scorecard.getBusiestHours().isEmpty()) {
+            for (String hour : scorecard.getBusiestHours().split(",")) {
+                busiestHours.add(Integer.parseInt(hour));
+            }
+        }
+        return AgentScorecardDTO.builder()
+                .agentId(scorecard.getAgentId())
+                .totalAppointments(scorecard.getTotalAppointments())
+                .completedCount(scorecard.getCompletedCount())
+                .cancelledCount(scorecard.getCancelledCount())
+                .noShowCount(scorecard.getNoShowCount())
+                .completionRate(scorecard.getCompletionRate())
+                .cancellationRate(scorecard.getCancellationRate())
+                .noShowRate(scorecard.getNoShowRate())
+                .medianLeadTimeHours(scorecard.getMedianLeadTimeHours())
+                .busiestHours(busiestHours)
+                .computedAt(scorecard.getComputedAt())
+                .build();
+    }
+
+    private static class Accumulator {
+        private final Long agentId;
+        private final long[] appointmentsByHour = new long[24];
+        private long total;
+        private long completed;
+        private long cancelled;
+        private long noShow;
+        private long[] leadTimesMinutes = new long[16];
+        private int leadTimeCount;
+
+        Accumulator(Long agentId) {
+            this.agentId = agentId;
+        }
+
+        void add(Appointment.AppointmentStatus status, LocalDateTime appointmentDateTime, LocalDateTime createdAt) {
+            total++;
+            switch (status) {
+                case COMPLETED -> completed++;
+                case CANCELLED -> cancelled++;
+                case NO_SHOW -> noShow++;
+                default -> { }
+            }
+            appointmentsByHour[appointmentDateTime.getHour()]++;
+            if (createdAt != null && !appointmentDateTime.isBefore(createdAt)) {
+                if (leadTimeCount == leadTimesMinutes.length) {
+                    leadTimesMinutes = Arrays.copyOf(leadTimesMinutes, leadTimeCount * 2);
+                }
+                leadTimesMinutes[leadTimeCount++] = Duration.between(createdAt, appointmentDateTime).toMinutes();
+            }
+        }
+
+        AgentScorecard applyTo(AgentScorecard scorecard, LocalDateTime computedAt, int busiestHourCount) {
+            if (scorecard == null) {
+                scorecard = AgentScorecard.builder().agentId(agentId).build();
+            }
+            scorecard.setTotalAppointments(total);
+            scorecard.setCompletedCount(completed);
+            scorecard.setCancelledCount(cancelled);
+            scorecard.setNoShowCount(noShow);
+            scorecard.setCompletionRate(rate(completed));
+            scorecard.setCancellationRate(rate(cancelled));
+            scorecard.setNoShowRate(rate(noShow));
+            scorecard.setMedianLeadTimeHours(medianLeadTimeHours());
+            scorecard.setBusiestHours(busiestHours(busiestHourCount));
+            scorecard.setComputedAt(computedAt);
+            return scorecard;
+        }
+
+        private Double rate(long count) {
+            return total > 0 ? (double) count / total : 0.0;
+        }
+
+        private Double medianLeadTimeHours() {
+            if (leadTimeCount == 0) {
+                return null;
+            }
+            long[] sorted = Arrays.copyOf(leadTimesMinutes, leadTimeCount);
+            Arrays.sort(sorted);
+            int middle = leadTimeCount / 2;
+            double medianMinutes = leadTimeCount % 2 == 1
+                    ? sorted[middle]
+                    : (sorted[middle - 1] + sorted[middle]) / 2.0;
+            return medianMinutes / 60.0;
+        }
+
+        // Hours with at least one appointment, most appointments first, earlier hour on ties
+        private String busiestHours(int limit) {
+            List<Integer> hours = new ArrayList<>();
+            for (int hour = 0; hour < 24; hour++) {
+                if (appointmentsByHour[hour] > 0) {
+                    hours.add(hour);
+                }
+            }
+            hours.sort((a, b) -> Long.compare(appointmentsByHour[b], appointmentsByHour[a]));
+            return hours.stream()
+                    .limit(limit)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(","));
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.insurance.service;
 import com.insurance.dto.AgentDTO;
 import com.insurance.entity.Agent;
 import com.insurance.entity.User;
+import com.insurance.event.AgentRosterChangedEvent;
 import com.insurance.repository.AgentRepository;
 import com.insurance.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +23,9 @@ public class AgentService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public List<AgentDTO> getAllAgents() {
         return agentRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -80,6 +85,7 @@ public class AgentService {
                 .build();
         
         agent = agentRepository.save(agent);
+        eventPublisher.publishEvent(new AgentRosterChangedEvent(agent.getId()));
         return convertToDTO(agent);
     }
     
@@ -105,12 +111,14 @@ public class AgentService {
         }
         
         agent = agentRepository.save(agent);
+        eventPublisher.publishEvent(new AgentRosterChangedEvent(agent.getId()));
         return convertToDTO(agent);
     }
     
     @Transactional
     public void deleteAgent(Long id) {
         agentRepository.deleteById(id);
+        eventPublisher.publishEvent(new AgentRosterChangedEvent(id));
     }
     
     @Transactional
@@ -0,0 +1,121 @@
+package com.insurance.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent analytics sections concurrently on a bounded pool, each in its own
+ * read-only transaction (and therefore on its own connection). Sections that fail or miss
+ * the overall deadline are reported as unavailable instead of failing the whole result.
+ * With analytics.parallel.enabled=false sections run one after another on the caller thread.
+ */
+@Component
+public class AnalyticsQueryExecutor {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${analytics.parallel.enabled:true}")
+    private boolean parallelEnabled;
+
+    @Value("${analytics.parallel.pool-size:6}")
+    private int poolSize;
+
+    @Value("${analytics.parallel.deadline-ms:5000}")
+    private long deadlineMs;
+
+    private TransactionTemplate readOnlyTransaction;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // Also bounds the statements of sections that are abandoned after the deadline
+        readOnlyTransaction.setTimeout((int) Math.max(1, (deadlineMs + 999) / 1000));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(poolSize * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "analytics-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    public class Batch {
+
+        private final Map<String, CompletableFuture<?>> sections = new LinkedHashMap<>();
+
+        public <T> CompletableFuture<T> submit(String section, Supplier<T> query) {
+            CompletableFuture<T> future;
+            if (parallelEnabled) {
+                try {
+                    future = CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), executor);
+                } catch (RejectedExecutionException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+            } else {
+                try {
+                    future = CompletableFuture.completedFuture(readOnlyTransaction.execute(status -> query.get()));
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+            }
+            sections.put(section, future);
+            return future;
+        }
+
+        /**
+         * Waits for all sections up to the deadline and returns the names of sections
+         * that failed or did not finish in time. Unfinished sections are cancelled.
+         */
+        public List<String> awaitAll() {
+            CompletableFuture<Void> all = CompletableFuture.allOf(sections.values().toArray(new CompletableFuture<?>[0]));
+            try {
+                all.get(deadlineMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                // Individual sections are inspected below
+            }
+
+            List<String> unavailable = new ArrayList<>();
+            sections.forEach((section, future) -> {
+                if (!future.isDone() || future.isCompletedExceptionally()) {
+                    future.cancel(true);
+                    unavailable.add(section);
+                }
+            });
+            if (!unavailable.isEmpty()) {
+                System.err.println("Analytics sections unavailable: " + unavailable);
+            }
+            return unavailable;
+        }
+
+        public <T> T valueOf(CompletableFuture<T> future) {
+            return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+        }
+    }
+}
@@ -2,14 +2,26 @@ package com.insurance.service;
 
 import com.insurance.dto.AnalyticsDTO;
 import com.insurance.dto.AppointmentDTO;
+import com.insurance.dto.LatencySummaryDTO;
+import com.insurance.dto.PolicyPortfolioDTO;
 import com.insurance.entity.Appointment;
+import com.insurance.event.AppointmentChangedEvent;
 import com.insurance.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,62 +37,223 @@ public class AnalyticsService {
     private AgentRepository agentRepository;
     
     @Autowired
-    private InsurancePolicyRepository policyRepository;
+    private AIQueryLogRepository queryLogRepository;
     
     @Autowired
-    private AIQueryLogRepository queryLogRepository;
+    private AppointmentAggregationService aggregationService;
+    
+    @Autowired
+    private AppointmentCounterRegistry counterRegistry;
+    
+    @Autowired
+    private AnalyticsQueryExecutor queryExecutor;
+    
+    @Autowired
+    private AILatencyService latencyService;
+    
+    @Autowired
+    private PolicyPortfolioService policyPortfolioService;
+    
+    @Autowired
+    private EngagementService engagementService;
     
     @Autowired
-    private AppointmentService appointmentService;
+    @Qualifier("applicationTaskExecutor")
+    private Executor refreshExecutor;
+    
+    // A snapshot older than this is still served, but triggers a background refresh
+    @Value("${analytics.snapshot.max-age-ms:120000}")
+    private long snapshotMaxAgeMs;
+    
+    private volatile AnalyticsSnapshot snapshot;
+    
+    private final Object initialLoadLock = new Object();
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean(false);
+    private final AtomicBoolean refreshRequested = new AtomicBoolean(false);
     
     public AnalyticsDTO getAdminAnalytics() {
-        // Get totals
-        Long totalAppointments = appointmentRepository.count();
-        Long totalUsers = userRepository.count();
-        Long totalAgents = agentRepository.count();
-        Long totalPolicies = policyRepository.count();
-        Long totalAIQueries = queryLogRepository.count();
-        
-        // Get appointments by status
-        Long pendingAppointments = appointmentRepository.countByStatus(Appointment.AppointmentStatus.PENDING);
-        Long confirmedAppointments = appointmentRepository.countByStatus(Appointment.AppointmentStatus.CONFIRMED);
-        Long completedAppointments = appointmentRepository.countByStatus(Appointment.AppointmentStatus.COMPLETED);
-        Long cancelledAppointments = appointmentRepository.countByStatus(Appointment.AppointmentStatus.CANCELLED);
-        
-        // Get appointments by type
-        Map<String, Long> appointmentsByType = new HashMap<>();
-        for (Appointment.AppointmentType type : Appointment.AppointmentType.values()) {
-            appointmentsByType.put(type.name(), appointmentRepository.countByType(type));
+        return currentSnapshot().analytics();
+    }
+    
+    public Map<String, Long> getAppointmentsByMonth() {
+        return currentSnapshot().appointmentsByMonth();
+    }
+    
+    /**
+     * Appointment changes request an early snapshot refresh once committed.
+     * Requests are coalesced and picked up by {@link #refreshIfRequested()}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        refreshRequested.set(true);
+    }
+    
+    @Scheduled(fixedDelayString = "${analytics.snapshot.refresh-interval-ms:60000}")
+    public void refreshSnapshot() {
+        if (!refreshInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshRequested.set(false);
+            snapshot = computeSnapshot();
+        } catch (Exception e) {
+            System.err.println("Analytics snapshot refresh failed: " + e.getMessage());
+        } finally {
+            refreshInProgress.set(false);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${analytics.snapshot.min-refresh-interval-ms:5000}")
+    public void refreshIfRequested() {
+        if (refreshRequested.get()) {
+            refreshSnapshot();
+        }
+    }
+    
+    private AnalyticsSnapshot currentSnapshot() {
+        AnalyticsSnapshot current = snapshot;
+        if (current == null) {
+            // Only the very first request computes inline; concurrent callers wait for it
+            synchronized (initialLoadLock) {
+                if (snapshot == null) {
+                    snapshot = computeSnapshot();
+                }
+                return snapshot;
+            }
+        }
+        if (Duration.between(current.computedAt(), Instant.now()).toMillis() > snapshotMaxAgeMs
+                && !refreshInProgress.get()) {
+            refreshExecutor.execute(this::refreshSnapshot);
+        }
+        return current;
+    }
+    
+    private AnalyticsSnapshot computeSnapshot() {
+        AnalyticsDTO analytics = computeAdminAnalytics();
+        if (!analytics.getUnavailableSections().isEmpty()) {
+            // Retry soon instead of serving a partial result for a full refresh interval
+            refreshRequested.set(true);
         }
+        Map<String, Long> appointmentsByMonth = analytics.getAppointmentsByMonth() != null
+                ? analytics.getAppointmentsByMonth()
+                : Collections.emptyMap();
+        return new AnalyticsSnapshot(analytics, appointmentsByMonth, Instant.now());
+    }
+    
+    private AnalyticsDTO computeAdminAnalytics() {
+        // Sections are independent, so they run concurrently under one deadline
+        AnalyticsQueryExecutor.Batch sections = queryExecutor.newBatch();
         
-        // Get appointments by agent
-        Map<String, Long> appointmentsByAgent = new HashMap<>();
-        agentRepository.findAll().forEach(agent -> {
-            Long count = appointmentRepository.countByAgentId(agent.getId());
-            appointmentsByAgent.put(agent.getUser().getFullName(), count);
-        });
+        // Get totals
+        CompletableFuture<Long> totalUsers = sections.submit("totalUsers", userRepository::count);
+        CompletableFuture<Long> totalAgents = sections.submit("totalAgents", agentRepository::count);
+        CompletableFuture<Long> totalAIQueries = sections.submit("totalAIQueries", queryLogRepository::count);
         
-        // Get appointments by status for pie chart
-        Map<String, Long> appointmentsByStatus = new HashMap<>();
-        appointmentsByStatus.put("PENDING", pendingAppointments);
-        appointmentsByStatus.put("CONFIRMED", confirmedAppointments);
-        appointmentsByStatus.put("COMPLETED", completedAppointments);
-        appointmentsByStatus.put("CANCELLED", cancelledAppointments);
+        // Get appointments by status, type and agent
+        CompletableFuture<EnumMap<Appointment.AppointmentStatus, Long>> statusCounts =
+                sections.submit("appointmentsByStatus", this::getStatusCounts);
+        CompletableFuture<Map<String, Long>> appointmentsByType =
+                sections.submit("appointmentsByType", this::getAppointmentsByType);
+        CompletableFuture<Map<String, Long>> appointmentsByAgent =
+                sections.submit("appointmentsByAgent", this::getAppointmentsByAgent);
         
         // Get recent appointments
-        List<AppointmentDTO> recentAppointments = appointmentRepository.findRecentAppointments()
-                .stream()
-                .limit(10)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        CompletableFuture<List<AppointmentDTO>> recentAppointments =
+                sections.submit("recentAppointments", this::getRecentAppointments);
+        
+        // Get weekly, monthly and by-month stats
+        CompletableFuture<List<Map<String, Object>>> weeklyStats = sections.submit("weeklyStats", this::getWeeklyStats);
+        CompletableFuture<List<Map<String, Object>>> monthlyStats = sections.submit("monthlyStats", this::getMonthlyStats);
+        CompletableFuture<Map<String, Long>> appointmentsByMonth =
+                sections.submit("appointmentsByMonth", this::computeAppointmentsByMonth);
+        
+        // Get AI query categories and response-time percentiles
+        CompletableFuture<Map<String, Long>> aiQueryCategories =
+                sections.submit("aiQueryCategories", this::getAiQueryCategories);
+        CompletableFuture<Map<String, LatencySummaryDTO>> aiLatency =
+                sections.submit("aiLatencyByCategory", latencyService::summarize);
+        
+        // Get policy premium and coverage aggregates
+        CompletableFuture<PolicyPortfolioDTO> policyPortfolio =
+                sections.submit("policyPortfolio", policyPortfolioService::getPortfolio);
         
-        // Get weekly stats
-        List<Map<String, Object>> weeklyStats = getWeeklyStats();
+        // Get approximate distinct users from the daily sketches
+        CompletableFuture<Map<String, Map<String, Long>>> engagement =
+                sections.submit("engagement", engagementService::getSummary);
         
-        // Get monthly stats
-        List<Map<String, Object>> monthlyStats = getMonthlyStats();
+        List<String> unavailableSections = sections.awaitAll();
         
-        // Get AI query categories
+        Map<String, LatencySummaryDTO> latencyByCategory = sections.valueOf(aiLatency);
+        LatencySummaryDTO overallLatency = latencyByCategory != null
+                ? latencyByCategory.get(AILatencyService.ALL_CATEGORIES)
+                : null;
+        
+        PolicyPortfolioDTO portfolio = sections.valueOf(policyPortfolio);
+        
+        EnumMap<Appointment.AppointmentStatus, Long> statuses = sections.valueOf(statusCounts);
+        Map<String, Long> appointmentsByStatus = null;
+        if (statuses != null) {
+            appointmentsByStatus = new HashMap<>();
+            for (Map.Entry<Appointment.AppointmentStatus, Long> entry : statuses.entrySet()) {
+                appointmentsByStatus.put(entry.getKey().name(), entry.getValue());
+            }
+            appointmentsByStatus = Collections.unmodifiableMap(appointmentsByStatus);
+        }
+        
+        return AnalyticsDTO.builder()
+                .totalAppointments(statuses != null ? AppointmentAggregationService.total(statuses) : null)
+                .pendingAppointments(statuses != null ? statuses.get(Appointment.AppointmentStatus.PENDING) : null)
+                .confirmedAppointments(statuses != null ? statuses.get(Appointment.AppointmentStatus.CONFIRMED) : null)
+                .completedAppointments(statuses != null ? statuses.get(Appointment.AppointmentStatus.COMPLETED) : null)
+                .cancelledAppointments(statuses != null ? statuses.get(Appointment.AppointmentStatus.CANCELLED) : null)
+                .noShowAppointments(statuses != null ? statuses.get(Appointment.AppointmentStatus.NO_SHOW) : null)
+                .totalUsers(sections.valueOf(totalUsers))
+                .totalAgents(sections.valueOf(totalAgents))
+                .totalPolicies(portfolio != null ? portfolio.getOverall().getCount() : null)
+                .totalAIQueries(sections.valueOf(totalAIQueries))
+                .appointmentsByType(sections.valueOf(appointmentsByType))
+                .appointmentsByAgent(sections.valueOf(appointmentsByAgent))
+                .appointmentsByMonth(sections.valueOf(appointmentsByMonth))
+                .appointmentsByStatus(appointmentsByStatus)
+                .recentAppointments(sections.valueOf(recentAppointments))
+                .weeklyStats(sections.valueOf(weeklyStats))
+                .monthlyStats(sections.valueOf(monthlyStats))
+                .aiQueryCategories(sections.valueOf(aiQueryCategories))
+                .averageResponseTime(overallLatency != null && overallLatency.getCount() > 0 ? overallLatency.getMean() : null)
+                .aiLatencyByCategory(latencyByCategory != null ? Collections.unmodifiableMap(latencyByCategory) : null)
+                .policyPortfolio(portfolio)
+                .engagement(sections.valueOf(engagement))
+                .unavailableSections(Collections.unmodifiableList(unavailableSections))
+                .build();
+    }
+    
+    // Live counters are used once loaded; until then fall back to grouped queries
+    
+    private EnumMap<Appointment.AppointmentStatus, Long> getStatusCounts() {
+        return counterRegistry.isInitialized() ? counterRegistry.countByStatus() : aggregationService.countByStatus();
+    }
+    
+    private Map<String, Long> getAppointmentsByType() {
+        Map<String, Long> appointmentsByType = new HashMap<>();
+        (counterRegistry.isInitialized() ? counterRegistry.countByType() : aggregationService.countByType())
+                .forEach((type, count) -> appointmentsByType.put(type.name(), count));
+        return Collections.unmodifiableMap(appointmentsByType);
+    }
+    
+    private Map<String, Long> getAppointmentsByAgent() {
+        return Collections.unmodifiableMap(counterRegistry.isInitialized()
+                ? countByAgentName(counterRegistry.countByAgent())
+                : aggregationService.countByAgentName());
+    }
+    
+    private List<AppointmentDTO> getRecentAppointments() {
+        return appointmentRepository.findTop10ByOrderByCreatedAtDesc()
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toUnmodifiableList());
+    }
+    
+    private Map<String, Long> getAiQueryCategories() {
         Map<String, Long> aiQueryCategories = new HashMap<>();
         List<Object[]> categoryResults = queryLogRepository.countByCategory();
         categoryResults.forEach(result -> {
@@ -88,99 +261,63 @@ public class AnalyticsService {
             Long count = (Long) result[1];
             aiQueryCategories.put(category, count);
         });
-        
-        // Get average response time
-        Double averageResponseTime = queryLogRepository.getAverageResponseTime();
-        
-        return AnalyticsDTO.builder()
-                .totalAppointments(totalAppointments)
-                .pendingAppointments(pendingAppointments)
-                .confirmedAppointments(confirmedAppointments)
-                .completedAppointments(completedAppointments)
-                .cancelledAppointments(cancelledAppointments)
-                .totalUsers(totalUsers)
-                .totalAgents(totalAgents)
-                .totalPolicies(totalPolicies)
-                .totalAIQueries(totalAIQueries)
-                .appointmentsByType(appointmentsByType)
-                .appointmentsByAgent(appointmentsByAgent)
-                .appointmentsByStatus(appointmentsByStatus)
-                .recentAppointments(recentAppointments)
-                .weeklyStats(weeklyStats)
-                .monthlyStats(monthlyStats)
-                .aiQueryCategories(aiQueryCategories)
-                .averageResponseTime(averageResponseTime)
-                .build();
+        return Collections.unmodifiableMap(aiQueryCategories);
+    }
+    
+    private Map<String, Long> countByAgentName(Map<Long, Long> countsByAgentId) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : agentRepository.findAllIdAndFullName()) {
+            counts.merge((String) row[1], countsByAgentId.getOrDefault((Long) row[0], 0L), Long::sum);
+        }
+        return counts;
     }
     
     private List<Map<String, Object>> getWeeklyStats() {
         List<Map<String, Object>> weeklyStats = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
         
-        for (int i = 6; i >= 0; i--) {
-            LocalDateTime dayStart = now.minusDays(i).truncatedTo(ChronoUnit.DAYS);
-            LocalDateTime dayEnd = dayStart.plusDays(1);
-            
-            List<Appointment> appointments = appointmentRepository.findByDateRange(dayStart, dayEnd);
-            
+        aggregationService.countByDay(today.minusDays(6), today.plusDays(1)).forEach((day, counts) -> {
             Map<String, Object> dayStat = new HashMap<>();
-            dayStat.put("date", dayStart.toLocalDate().toString());
-            dayStat.put("day", dayStart.getDayOfWeek().toString());
-            dayStat.put("total", (long) appointments.size());
-            dayStat.put("confirmed", appointments.stream()
-                    .filter(a -> a.getStatus() == Appointment.AppointmentStatus.CONFIRMED)
-                    .count());
-            dayStat.put("pending", appointments.stream()
-                    .filter(a -> a.getStatus() == Appointment.AppointmentStatus.PENDING)
-                    .count());
-            dayStat.put("cancelled", appointments.stream()
-                    .filter(a -> a.getStatus() == Appointment.AppointmentStatus.CANCELLED)
-                    .count());
+            dayStat.put("date", day.toString());
+            dayStat.put("day", day.getDayOfWeek().toString());
+            dayStat.put("total", AppointmentAggregationService.total(counts));
+            dayStat.put("confirmed", counts.get(Appointment.AppointmentStatus.CONFIRMED));
+            dayStat.put("pending", counts.get(Appointment.AppointmentStatus.PENDING));
+            dayStat.put("cancelled", counts.get(Appointment.AppointmentStatus.CANCELLED));
             
             weeklyStats.add(dayStat);
-        }
+        });
         
-        return weeklyStats;
+        return Collections.unmodifiableList(weeklyStats);
     }
     
     private List<Map<String, Object>> getMonthlyStats() {
         List<Map<String, Object>> monthlyStats = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
+        YearMonth currentMonth = YearMonth.now();
         
-        for (int i = 11; i >= 0; i--) {
-            LocalDateTime monthStart = now.minusMonths(i).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
-            LocalDateTime monthEnd = monthStart.plusMonths(1);
-            
-            List<Appointment> appointments = appointmentRepository.findByDateRange(monthStart, monthEnd);
-            
+        aggregationService.countByMonth(currentMonth.minusMonths(11), currentMonth.plusMonths(1)).forEach((month, counts) -> {
             Map<String, Object> monthStat = new HashMap<>();
-            monthStat.put("month", monthStart.getMonth().toString());
-            monthStat.put("year", monthStart.getYear());
-            monthStat.put("total", (long) appointments.size());
-            monthStat.put("completed", appointments.stream()
-                    .filter(a -> a.getStatus() == Appointment.AppointmentStatus.COMPLETED)
-                    .count());
+            monthStat.put("month", month.getMonth().toString());
+            monthStat.put("year", month.getYear());
+            monthStat.put("total", AppointmentAggregationService.total(counts));
+            monthStat.put("completed", counts.get(Appointment.AppointmentStatus.COMPLETED));
             
             monthlyStats.add(monthStat);
-        }
+        });
         
-        return monthlyStats;
+        return Collections.unmodifiableList(monthlyStats);
     }
     
-    public Map<String, Long> getAppointmentsByMonth() {
+    private Map<String, Long> computeAppointmentsByMonth() {
         Map<String, Long> monthlyData = new LinkedHashMap<>();
-        LocalDateTime now = LocalDateTime.now();
+        YearMonth currentMonth = YearMonth.now();
         
-        for (int i = 5; i >= 0; i--) {
-            LocalDateTime monthStart = now.minusMonths(i).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
-            LocalDateTime monthEnd = monthStart.plusMonths(1);
-            
-            List<Appointment> appointments = appointmentRepository.findByDateRange(monthStart, monthEnd);
-            String monthKey = monthStart.getMonth().toString().substring(0, 3) + " " + monthStart.getYear();
-            monthlyData.put(monthKey, (long) appointments.size());
-        }
+        aggregationService.countByMonth(currentMonth.minusMonths(5), currentMonth.plusMonths(1)).forEach((month, counts) -> {
+            String monthKey = month.getMonth().toString().substring(0, 3) + " " + month.getYear();
+            monthlyData.put(monthKey, AppointmentAggregationService.total(counts));
+        });
         
-        return monthlyData;
+        return Collections.unmodifiableMap(monthlyData);
     }
     
     private AppointmentDTO convertToDTO(Appointment appointment) {
@@ -200,4 +337,10 @@ public class AnalyticsService {
                 .createdAt(appointment.getCreatedAt())
                 .build();
     }
+    
+    /**
+     * Immutable result of one analytics computation, swapped atomically on refresh.
+     */
+    private record AnalyticsSnapshot(AnalyticsDTO analytics, Map<String, Long> appointmentsByMonth, Instant computedAt) {
+    }
 }
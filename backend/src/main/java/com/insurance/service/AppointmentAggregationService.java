@@ -0,0 +1,117 @@
+package com.insurance.service;
+
+import com.insurance.entity.Appointment;
+import com.insurance.repository.AppointmentDailyStatRepository;
+import com.insurance.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Appointment breakdowns computed with grouped SQL queries.
+ * Each method issues a single GROUP BY query and never loads Appointment entities;
+ * day and month breakdowns read the appointment_daily_stats rollup instead of the appointments table.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AppointmentAggregationService {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentDailyStatRepository rollupRepository;
+
+    public EnumMap<Appointment.AppointmentStatus, Long> countByStatus() {
+        EnumMap<Appointment.AppointmentStatus, Long> counts = emptyStatusCounts();
+        for (Object[] row : appointmentRepository.countGroupedByStatus()) {
+            counts.put((Appointment.AppointmentStatus) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    public EnumMap<Appointment.AppointmentType, Long> countByType() {
+        EnumMap<Appointment.AppointmentType, Long> counts = new EnumMap<>(Appointment.AppointmentType.class);
+        for (Appointment.AppointmentType type : Appointment.AppointmentType.values()) {
+            counts.put(type, 0L);
+        }
+        for (Object[] row : appointmentRepository.countGroupedByType()) {
+            counts.put((Appointment.AppointmentType) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    /**
+     * Appointment count per agent full name, including agents without appointments.
+     */
+    public Map<String, Long> countByAgentName() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : appointmentRepository.countGroupedByAgent()) {
+            counts.merge((String) row[1], (Long) row[2], Long::sum);
+        }
+        return counts;
+    }
+
+    public Map<Long, Long> countByAgentId() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : appointmentRepository.countGroupedByAgentId()) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    /**
+     * Status counts per day for [startDate, endDate), zero-filled for every day in the range.
+     */
+    public Map<LocalDate, EnumMap<Appointment.AppointmentStatus, Long>> countByDay(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, EnumMap<Appointment.AppointmentStatus, Long>> days = new TreeMap<>();
+        for (LocalDate day = startDate; day.isBefore(endDate); day = day.plusDays(1)) {
+            days.put(day, emptyStatusCounts());
+        }
+
+        List<Object[]> rows = rollupRepository.sumByDayAndStatus(startDate, endDate);
+        for (Object[] row : rows) {
+            EnumMap<Appointment.AppointmentStatus, Long> counts = days.get((LocalDate) row[0]);
+            if (counts != null) {
+                counts.put((Appointment.AppointmentStatus) row[1], ((Number) row[2]).longValue());
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Status counts per month for [startMonth, endMonth), zero-filled for every month in the range.
+     */
+    public Map<YearMonth, EnumMap<Appointment.AppointmentStatus, Long>> countByMonth(YearMonth startMonth, YearMonth endMonth) {
+        Map<YearMonth, EnumMap<Appointment.AppointmentStatus, Long>> months = new TreeMap<>();
+        for (YearMonth month = startMonth; month.isBefore(endMonth); month = month.plusMonths(1)) {
+            months.put(month, emptyStatusCounts());
+        }
+
+        List<Object[]> rows = rollupRepository.sumByMonthAndStatus(startMonth.atDay(1), endMonth.atDay(1));
+        for (Object[] row : rows) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            EnumMap<Appointment.AppointmentStatus, Long> counts = months.get(month);
+            if (counts != null) {
+                counts.put((Appointment.AppointmentStatus) row[2], ((Number) row[3]).longValue());
+            }
+        }
+        return months;
+    }
+
+    public static long total(Map<Appointment.AppointmentStatus, Long> statusCounts) {
+        return statusCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static EnumMap<Appointment.AppointmentStatus, Long> emptyStatusCounts() {
+        EnumMap<Appointment.AppointmentStatus, Long> counts = new EnumMap<>(Appointment.AppointmentStatus.class);
+        for (Appointment.AppointmentStatus status : Appointment.AppointmentStatus.values()) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,151 @@
+package com.insurance.service;
+
+import com.insurance.entity.Appointment;
+import com.insurance.event.AppointmentChangedEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live appointment totals by status, type and agent, kept in LongAdders and updated from
+ * committed {@link AppointmentChangedEvent}s. A periodic reconciliation against the database
+ * corrects drift (e.g. changes made outside AppointmentService) and records each correction
+ * in the appointment.counters.correction distribution summary.
+ */
+@Service
+public class AppointmentCounterRegistry {
+
+    @Autowired
+    private AppointmentAggregationService aggregationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final EnumMap<Appointment.AppointmentStatus, LongAdder> byStatus = new EnumMap<>(Appointment.AppointmentStatus.class);
+    private final EnumMap<Appointment.AppointmentType, LongAdder> byType = new EnumMap<>(Appointment.AppointmentType.class);
+    private final ConcurrentHashMap<Long, LongAdder> byAgent = new ConcurrentHashMap<>();
+
+    private volatile boolean initialized = false;
+
+    public AppointmentCounterRegistry() {
+        for (Appointment.AppointmentStatus status : Appointment.AppointmentStatus.values()) {
+            byStatus.put(status, new LongAdder());
+        }
+        for (Appointment.AppointmentType type : Appointment.AppointmentType.values()) {
+            byType.put(type, new LongAdder());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        switch (event.changeType()) {
+            case CREATED -> {
+                byStatus.get(event.newStatus()).increment();
+                byType.get(event.type()).increment();
+                agentCounter(event.agentId()).increment();
+            }
+            case STATUS_CHANGED -> {
+                if (event.oldStatus() != event.newStatus()) {
+                    byStatus.get(event.oldStatus()).decrement();
+                    byStatus.get(event.newStatus()).increment();
+                }
+            }
+            case DELETED -> {
+                byStatus.get(event.oldStatus()).decrement();
+                byType.get(event.type()).decrement();
+                agentCounter(event.agentId()).decrement();
+            }
+        }
+    }
+
+    /**
+     * False until the first reconciliation has loaded the totals from the database.
+     */
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public EnumMap<Appointment.AppointmentStatus, Long> countByStatus() {
+        EnumMap<Appointment.AppointmentStatus, Long> counts = new EnumMap<>(Appointment.AppointmentStatus.class);
+        byStatus.forEach((status, adder) -> counts.put(status, adder.sum()));
+        return counts;
+    }
+
+    public EnumMap<Appointment.AppointmentType, Long> countByType() {
+        EnumMap<Appointment.AppointmentType, Long> counts = new EnumMap<>(Appointment.AppointmentType.class);
+        byType.forEach((type, adder) -> counts.put(type, adder.sum()));
+        return counts;
+    }
+
+    public Map<Long, Long> countByAgent() {
+        Map<Long, Long> counts = new HashMap<>();
+        byAgent.forEach((agentId, adder) -> counts.put(agentId, adder.sum()));
+        return counts;
+    }
+
+    public long total() {
+        long total = 0;
+        for (LongAdder adder : byStatus.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Brings every counter in line with the database. Changes committed while the grouped
+     * queries run may be counted twice or missed; the next reconciliation corrects them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${analytics.counters.reconcile-interval-ms:300000}",
+               initialDelayString = "${analytics.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            aggregationService.countByStatus().forEach((status, count) ->
+                    correct("status", status.name(), byStatus.get(status), count));
+            aggregationService.countByType().forEach((type, count) ->
+                    correct("type", type.name(), byType.get(type), count));
+
+            Map<Long, Long> agentCounts = aggregationService.countByAgentId();
+            agentCounts.forEach((agentId, count) ->
+                    correct("agent", null, agentCounter(agentId), count));
+            byAgent.keySet().removeIf(agentId -> !agentCounts.containsKey(agentId));
+
+            initialized = true;
+        } catch (Exception e) {
+            System.err.println("Appointment counter reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    private void correct(String dimension, String key, LongAdder adder, long expected) {
+        long correction = expected - adder.sum();
+        if (correction == 0) {
+            return;
+        }
+        adder.add(correction);
+        if (initialized) {
+            // The initial load is not drift, so only later corrections are reported
+            DistributionSummary.builder("appointment.counters.correction")
+                    .description("Absolute size of corrections applied by counter reconciliation")
+                    .tag("dimension", dimension)
+                    .tag("key", key != null ? key : "any")
+                    .register(meterRegistry)
+                    .record(Math.abs(correction));
+        }
+    }
+
+    private LongAdder agentCounter(Long agentId) {
+        return byAgent.computeIfAbsent(agentId, id -> new LongAdder());
+    }
+}
@@ -0,0 +1,135 @@
+package com.insurance.service;
+
+import com.insurance.entity.Appointment;
+import com.insurance.entity.AppointmentDailyStat;
+import com.insurance.repository.AppointmentDailyStatRepository;
+import com.insurance.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Maintains the appointment_daily_stats rollup (date x agent x type x status -> count).
+ * The record* methods join the caller's transaction, so the rollup commits or rolls back
+ * together with the appointment change that caused it.
+ */
+@Service
+public class AppointmentRollupService {
+
+    @Autowired
+    private AppointmentDailyStatRepository rollupRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Transactional
+    public void recordCreated(Appointment appointment) {
+        applyDelta(appointment, appointment.getStatus(), 1);
+    }
+
+    @Transactional
+    public void recordStatusChange(Appointment appointment, Appointment.AppointmentStatus oldStatus) {
+        if (oldStatus == appointment.getStatus()) {
+            return;
+        }
+        applyDelta(appointment, oldStatus, -1);
+        applyDelta(appointment, appointment.getStatus(), 1);
+    }
+
+    @Transactional
+    public void recordDeleted(Appointment appointment) {
+        applyDelta(appointment, appointment.getStatus(), -1);
+    }
+
+    private void applyDelta(Appointment appointment, Appointment.AppointmentStatus status, long delta) {
+        rollupRepository.applyDelta(
+                appointment.getAppointmentDateTime().toLocalDate(),
+                appointment.getAgent().getId(),
+                appointment.getType().name(),
+                status.name(),
+                delta);
+    }
+
+    /**
+     * Recomputes the rollup from the appointments table and corrects any rows that drifted.
+     * Both tables are read in one transaction, so under MySQL's default REPEATABLE READ the
+     * drift is measured against one snapshot; corrections are then applied as deltas
+     * (count = count + drift) rather than overwrites, so changes committed meanwhile are kept.
+     */
+    @Transactional
+    public Map<String, Long> reconcile() {
+        Map<RollupKey, Long> expected = new HashMap<>();
+        for (Object[] row : appointmentRepository.countGroupedByDayAgentTypeAndStatus()) {
+            RollupKey key = new RollupKey((LocalDate) row[0], (Long) row[1],
+                    (Appointment.AppointmentType) row[2], (Appointment.AppointmentStatus) row[3]);
+            expected.put(key, (Long) row[4]);
+        }
+
+        long rowsChecked = 0;
+        long rowsCorrected = 0;
+        long absoluteDrift = 0;
+        Map<RollupKey, Long> corrections = new HashMap<>();
+
+        for (AppointmentDailyStat stat : rollupRepository.findAll()) {
+            rowsChecked++;
+            RollupKey key = new RollupKey(stat.getStatDate(), stat.getAgentId(), stat.getType(), stat.getStatus());
+            long actual = stat.getAppointmentCount();
+            long wanted = expected.getOrDefault(key, 0L);
+            expected.remove(key);
+
+            if (actual != wanted) {
+                rowsCorrected++;
+                absoluteDrift += Math.abs(actual - wanted);
+                corrections.put(key, wanted - actual);
+            }
+        }
+
+        // Groups present in the base table but missing from the rollup
+        for (Map.Entry<RollupKey, Long> missing : expected.entrySet()) {
+            rowsCorrected++;
+            absoluteDrift += missing.getValue();
+            corrections.put(missing.getKey(), missing.getValue());
+        }
+
+        corrections.forEach((key, delta) -> rollupRepository.applyDelta(
+                key.date(), key.agentId(), key.type().name(), key.status().name(), delta));
+        rollupRepository.deleteEmpty();
+
+        if (rowsCorrected > 0) {
+            System.out.println("Appointment rollup reconciled: " + rowsCorrected + " rows corrected, drift " + absoluteDrift);
+        }
+
+        Map<String, Long> report = new LinkedHashMap<>();
+        report.put("rowsChecked", rowsChecked);
+        report.put("rowsCorrected", rowsCorrected);
+        report.put("absoluteDrift", absoluteDrift);
+        return report;
+    }
+
+    @Scheduled(cron = "${analytics.rollup.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Populates the rollup on first start against an existing appointments table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (rollupRepository.count() == 0 && appointmentRepository.count() > 0) {
+            reconcile();
+        }
+    }
+
+    private record RollupKey(LocalDate date, Long agentId,
+                             Appointment.AppointmentType type, Appointment.AppointmentStatus status) {
+    }
+}
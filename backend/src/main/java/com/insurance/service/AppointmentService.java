@@ -6,11 +6,13 @@ import com.insurance.entity.Agent;
 import com.insurance.entity.AgentAvailability;
 import com.insurance.entity.Appointment;
 import com.insurance.entity.User;
+import com.insurance.event.AppointmentChangedEvent;
 import com.insurance.repository.AgentAvailabilityRepository;
 import com.insurance.repository.AgentRepository;
 import com.insurance.repository.AppointmentRepository;
 import com.insurance.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,6 +44,12 @@ public class AppointmentService {
     @Autowired
     private AgentService agentService;
     
+    @Autowired
+    private AppointmentRollupService rollupService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public List<AppointmentDTO> getAllAppointments() {
         return appointmentRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -93,6 +101,8 @@ public class AppointmentService {
                 .build();
         
         appointment = appointmentRepository.save(appointment);
+        rollupService.recordCreated(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.created(appointment));
         
         // Update agent appointment count
         agentService.incrementAppointmentCount(agent.getId());
@@ -124,6 +134,8 @@ public class AppointmentService {
         }
         
         appointment = appointmentRepository.save(appointment);
+        rollupService.recordStatusChange(appointment, oldStatus);
+        eventPublisher.publishEvent(AppointmentChangedEvent.statusChanged(appointment, oldStatus));
         return convertToDTO(appointment);
     }
     
@@ -138,6 +150,8 @@ public class AppointmentService {
         }
         
         appointmentRepository.deleteById(id);
+        rollupService.recordDeleted(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.deleted(appointment));
     }
     
     private AppointmentDTO convertToDTO(Appointment appointment) {
@@ -0,0 +1,136 @@
+package com.insurance.service;
+
+import com.insurance.dto.TimeSeriesDTO;
+import com.insurance.dto.TimeSeriesPointDTO;
+import com.insurance.entity.Appointment;
+import com.insurance.repository.AppointmentDailyStatRepository;
+import com.insurance.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * Appointment counts over an arbitrary range in hour, day, week or month buckets.
+ * Each request runs one GROUP BY query: hours group the appointments table, coarser buckets
+ * group the daily rollup (weeks fold its days in memory). Empty buckets are zero-filled and the
+ * number of buckets is capped, so the cost of a request is bounded regardless of the range.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AppointmentTimeSeriesService {
+
+    public enum Bucket {
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS),
+        WEEK(ChronoUnit.WEEKS),
+        MONTH(ChronoUnit.MONTHS);
+
+        private final ChronoUnit unit;
+
+        Bucket(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * Start of the bucket containing the given time; weeks start on Monday.
+         */
+        public LocalDateTime floor(LocalDateTime time) {
+            return switch (this) {
+                case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+                case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+                case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            };
+        }
+
+        public LocalDateTime ceil(LocalDateTime time) {
+            LocalDateTime floor = floor(time);
+            return floor.equals(time) ? floor : floor.plus(1, unit);
+        }
+
+        public static Bucket from(String value) {
+            try {
+                return Bucket.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported bucket size: " + value);
+            }
+        }
+    }
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentDailyStatRepository rollupRepository;
+
+    @Value("${analytics.timeseries.max-buckets:1000}")
+    private int maxBuckets;
+
+    public TimeSeriesDTO query(LocalDateTime start, LocalDateTime end, Bucket bucket, Long agentId,
+                               Appointment.AppointmentType type, Appointment.AppointmentStatus status) {
+        if (!end.isAfter(start)) {
+            throw new RuntimeException("end must be after start");
+        }
+        LocalDateTime alignedStart = bucket.floor(start);
+        LocalDateTime alignedEnd = bucket.ceil(end);
+        long bucketCount = bucket.unit.between(alignedStart, alignedEnd);
+        if (bucketCount > maxBuckets) {
+            throw new RuntimeException("Range spans " + bucketCount + " " + bucket.name().toLowerCase()
+                    + " buckets; the maximum is " + maxBuckets);
+        }
+
+        Map<LocalDateTime, Long> counts = new LinkedHashMap<>();
+        for (LocalDateTime bucketStart = alignedStart; bucketStart.isBefore(alignedEnd); bucketStart = bucketStart.plus(1, bucket.unit)) {
+            counts.put(bucketStart, 0L);
+        }
+
+        LocalDate startDate = alignedStart.toLocalDate();
+        LocalDate endDate = alignedEnd.toLocalDate();
+        switch (bucket) {
+            case HOUR -> {
+                for (Object[] row : appointmentRepository.countByHourFiltered(alignedStart, alignedEnd, agentId, type, status)) {
+                    LocalDateTime hour = ((LocalDate) row[0]).atTime(((Number) row[1]).intValue(), 0);
+                    counts.merge(hour, ((Number) row[2]).longValue(), Long::sum);
+                }
+            }
+            case DAY, WEEK -> {
+                for (Object[] row : rollupRepository.sumByDayFiltered(startDate, endDate, agentId, type, status)) {
+                    LocalDateTime day = ((LocalDate) row[0]).atStartOfDay();
+                    counts.merge(bucket.floor(day), ((Number) row[1]).longValue(), Long::sum);
+                }
+            }
+            case MONTH -> {
+                for (Object[] row : rollupRepository.sumByMonthFiltered(startDate, endDate, agentId, type, status)) {
+                    LocalDateTime month = LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1).atStartOfDay();
+                    counts.merge(month, ((Number) row[2]).longValue(), Long::sum);
+                }
+            }
+        }
+
+        List<TimeSeriesPointDTO> points = new ArrayList<>(counts.size());
+        long total = 0;
+        for (Map.Entry<LocalDateTime, Long> entry : counts.entrySet()) {
+            points.add(new TimeSeriesPointDTO(entry.getKey(), entry.getValue()));
+            total += entry.getValue();
+        }
+
+        return TimeSeriesDTO.builder()
+                .bucket(bucket.name())
+                .start(alignedStart)
+                .end(alignedEnd)
+                .agentId(agentId)
+                .type(type != null ? type.name() : null)
+                .status(status != null ? status.name() : null)
+                .total(total)
+                .points(points)
+                .build();
+    }
+}
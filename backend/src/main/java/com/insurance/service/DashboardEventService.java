@@ -0,0 +1,229 @@
+package com.insurance.service;
+
+import com.insurance.dto.LatencySummaryDTO;
+import com.insurance.event.AppointmentChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes small delta events to connected admin dashboards over Server-Sent Events.
+ * Publishers only enqueue into a bounded per-subscriber buffer and never block. When a slow
+ * subscriber's buffer is full its oldest event is dropped and a "resync" event tells the
+ * dashboard to reload the full analytics snapshot. Events are built from in-memory state,
+ * so the cost per subscriber does not depend on the size of the database.
+ *
+ * <p>{@link SseEmitter#send} blocks while a client's TCP buffer is full, so the dispatch pool
+ * can grow to one thread per subscriber: a stalled dashboard only holds its own thread and
+ * never delays delivery to the others. A subscriber keeps its slot until it has disconnected
+ * and its last send has returned, so max-subscribers bounds both connections and threads.
+ * Idle threads exit after a minute.
+ */
+@Service
+public class DashboardEventService {
+
+    private static final int DRAIN_BATCH_SIZE = 64;
+
+    @Autowired
+    private AppointmentCounterRegistry counterRegistry;
+
+    @Autowired
+    private AILatencyService latencyService;
+
+    @Value("${dashboard.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${dashboard.stream.max-subscribers:100}")
+    private int maxSubscribers;
+
+    @Value("${dashboard.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private Semaphore slots;
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    public void init() {
+        slots = new Semaphore(maxSubscribers);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Each slot has at most one drain in flight, so maxSubscribers threads always suffice
+        dispatcher = new ThreadPoolExecutor(0, maxSubscribers, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-sse-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        dispatcher.shutdownNow();
+    }
+
+    public SseEmitter subscribe() {
+        if (!slots.tryAcquire()) {
+            throw new RuntimeException("Too many dashboard subscribers");
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(emitterTimeoutMs), bufferSize);
+        subscriber.emitter.onCompletion(() -> close(subscriber));
+        subscriber.emitter.onTimeout(() -> close(subscriber));
+        subscriber.emitter.onError(error -> close(subscriber));
+        subscribers.add(subscriber);
+
+        // Initial state so the dashboard can apply later deltas
+        enqueue(subscriber, new DashboardEvent("counters", countersPayload()));
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public void publish(String name, Object data) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        DashboardEvent event = new DashboardEvent(name, data);
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, event);
+        }
+    }
+
+    // Runs after AppointmentCounterRegistry has applied the same event
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Map<String, Object> change = new LinkedHashMap<>();
+        change.put("changeType", event.changeType());
+        change.put("appointmentId", event.appointmentId());
+        change.put("agentId", event.agentId());
+        change.put("type", event.type());
+        change.put("oldStatus", event.oldStatus());
+        change.put("newStatus", event.newStatus());
+        change.put("appointmentDateTime", event.appointmentDateTime());
+        publish("appointment", change);
+        publish("counters", countersPayload());
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.stream.ai-latency-interval-ms:5000}")
+    public void publishAiLatency() {
+        LatencySummaryDTO recent = latencyService.drainRecent();
+        if (recent.getCount() > 0) {
+            publish("ai-latency", recent);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        publish("heartbeat", System.currentTimeMillis());
+    }
+
+    private Map<String, Object> countersPayload() {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("totalAppointments", counterRegistry.total());
+        counters.put("appointmentsByStatus", counterRegistry.countByStatus());
+        counters.put("appointmentsByType", counterRegistry.countByType());
+        return counters;
+    }
+
+    private void enqueue(Subscriber subscriber, DashboardEvent event) {
+        while (!subscriber.buffer.offer(event)) {
+            subscriber.buffer.poll();
+            subscriber.overflowed.set(true);
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            if (subscriber.closed.get()) {
+                subscriber.draining.set(false);
+                releaseIfIdle(subscriber);
+                return;
+            }
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Only after shutdown
+                subscriber.draining.set(false);
+                releaseIfIdle(subscriber);
+            }
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.closed.set(true);
+        releaseIfIdle(subscriber);
+    }
+
+    // closed and draining are each written before the other is read, so one of close() and
+    // the end of the last drain always sees both and frees the slot
+    private void releaseIfIdle(Subscriber subscriber) {
+        if (subscriber.closed.get() && !subscriber.draining.get() && subscriber.released.compareAndSet(false, true)) {
+            slots.release();
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.overflowed.getAndSet(false)) {
+                subscriber.emitter.send(SseEmitter.event().name("resync").data("buffer overflow"));
+            }
+            // Bounded batch so one busy subscriber cannot monopolise a dispatch thread
+            DashboardEvent event;
+            int sent = 0;
+            while (sent < DRAIN_BATCH_SIZE && (event = subscriber.buffer.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+                sent++;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            close(subscriber);
+            subscriber.buffer.clear();
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+            releaseIfIdle(subscriber);
+        }
+        if (!subscriber.buffer.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private record DashboardEvent(String name, Object data) {
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<DashboardEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final AtomicBoolean overflowed = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
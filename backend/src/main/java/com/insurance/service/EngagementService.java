@@ -0,0 +1,205 @@
+package com.insurance.service;
+
+import com.insurance.entity.EngagementSketch;
+import com.insurance.event.AppointmentChangedEvent;
+import com.insurance.repository.AIQueryLogRepository;
+import com.insurance.repository.AppointmentRepository;
+import com.insurance.repository.EngagementSketchRepository;
+import com.insurance.util.HyperLogLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Approximate distinct-user counts (appointment bookers, AI assistant users) over any date range.
+ * Each day has one HyperLogLog sketch per metric, built in memory and periodically merged into
+ * engagement_sketches. A range is answered by merging its daily sketches, so memory and error
+ * stay bounded however many users or days are involved.
+ */
+@Service
+public class EngagementService {
+
+    @Autowired
+    private EngagementSketchRepository sketchRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AIQueryLogRepository queryLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<SketchKey, PendingSketch> pending = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.changeType() == AppointmentChangedEvent.ChangeType.CREATED && event.customerId() != null) {
+            record(EngagementSketch.Metric.APPOINTMENT_BOOKERS, event.customerId());
+        }
+    }
+
+    public void recordAIUser(Long userId) {
+        if (userId != null) {
+            record(EngagementSketch.Metric.AI_USERS, userId);
+        }
+    }
+
+    private void record(EngagementSketch.Metric metric, long userId) {
+        PendingSketch sketch = pending.computeIfAbsent(new SketchKey(LocalDate.now(), metric), k -> new PendingSketch());
+        if (sketch.hll.add(userId)) {
+            sketch.dirty.set(true);
+        }
+    }
+
+    /**
+     * Estimated number of distinct users for the metric between startDate and endDate, inclusive.
+     */
+    @Transactional(readOnly = true)
+    public long countDistinctUsers(EngagementSketch.Metric metric, LocalDate startDate, LocalDate endDate) {
+        HyperLogLog union = new HyperLogLog();
+        for (byte[] registers : sketchRepository.findRegistersInRange(metric, startDate, endDate)) {
+            union.merge(registers);
+        }
+        // Merging is idempotent, so samples already flushed are not counted twice
+        pending.forEach((key, sketch) -> {
+            if (key.metric() == metric && !key.date().isBefore(startDate) && !key.date().isAfter(endDate)) {
+                union.merge(sketch.hll);
+            }
+        });
+        return union.estimate();
+    }
+
+    /**
+     * Distinct users today, over the last 7 days and over the last 30 days, per metric.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, Long>> getSummary() {
+        LocalDate today = LocalDate.now();
+        Map<String, Map<String, Long>> summary = new LinkedHashMap<>();
+        for (EngagementSketch.Metric metric : EngagementSketch.Metric.values()) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            counts.put("daily", countDistinctUsers(metric, today, today));
+            counts.put("weekly", countDistinctUsers(metric, today.minusDays(6), today));
+            counts.put("monthly", countDistinctUsers(metric, today.minusDays(29), today));
+            summary.put(metric.name(), counts);
+        }
+        return summary;
+    }
+
+    @Scheduled(fixedDelayString = "${engagement.sketch.flush-interval-ms:60000}")
+    public void flush() {
+        LocalDate today = LocalDate.now();
+        pending.forEach((key, sketch) -> {
+            // Past days stop receiving ids, so they are flushed one last time and dropped
+            boolean closed = key.date().isBefore(today);
+            if (closed) {
+                pending.remove(key, sketch);
+            }
+            if (!sketch.dirty.getAndSet(false)) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> mergeIntoStore(key, sketch.hll));
+            } catch (Exception e) {
+                sketch.dirty.set(true);
+                if (closed) {
+                    pending.merge(key, sketch, (current, failed) -> {
+                        current.hll.merge(failed.hll);
+                        current.dirty.set(true);
+                        return current;
+                    });
+                }
+                System.err.println("Failed to flush engagement sketch " + key + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void mergeIntoStore(SketchKey key, HyperLogLog sketch) {
+        Optional<EngagementSketch> existing = sketchRepository.findBySketchDateAndMetric(key.date(), key.metric());
+        if (existing.isPresent()) {
+            HyperLogLog stored = HyperLogLog.fromBytes(existing.get().getRegisters());
+            if (stored.merge(sketch)) {
+                existing.get().setRegisters(stored.toBytes());
+                sketchRepository.save(existing.get());
+            }
+        } else {
+            sketchRepository.save(EngagementSketch.builder()
+                    .sketchDate(key.date())
+                    .metric(key.metric())
+                    .registers(sketch.toBytes())
+                    .build());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Builds sketches from existing appointments and AI query logs on first start.
+     * Rows arrive ordered by day, so only the current day's sketch is held in memory.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (sketchRepository.count() > 0) {
+            return;
+        }
+        try (Stream<Object[]> rows = appointmentRepository.streamBookingDaysAndCustomers()) {
+            backfill(EngagementSketch.Metric.APPOINTMENT_BOOKERS, rows);
+        }
+        try (Stream<Object[]> rows = queryLogRepository.streamQueryDaysAndUsers()) {
+            backfill(EngagementSketch.Metric.AI_USERS, rows);
+        }
+    }
+
+    private void backfill(EngagementSketch.Metric metric, Stream<Object[]> rows) {
+        LocalDate currentDay = null;
+        HyperLogLog sketch = new HyperLogLog();
+        for (Iterator<Object[]> iterator = rows.iterator(); iterator.hasNext(); ) {
+            Object[] row = iterator.next();
+            LocalDate day = (LocalDate) row[0];
+            if (currentDay != null && !day.equals(currentDay)) {
+                mergeIntoStore(new SketchKey(currentDay, metric), sketch);
+                sketch = new HyperLogLog();
+            }
+            currentDay = day;
+            sketch.add((Long) row[1]);
+        }
+        if (currentDay != null) {
+            mergeIntoStore(new SketchKey(currentDay, metric), sketch);
+        }
+    }
+
+    private record SketchKey(LocalDate date, EngagementSketch.Metric metric) {
+    }
+
+    private static class PendingSketch {
+        private final HyperLogLog hll = new HyperLogLog();
+        private final AtomicBoolean dirty = new AtomicBoolean(false);
+    }
+}
@@ -0,0 +1,184 @@
+package com.insurance.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.insurance.dto.AIQueryLogExportRow;
+import com.insurance.dto.AppointmentExportRow;
+import com.insurance.dto.NotificationExportRow;
+import com.insurance.repository.AIQueryLogRepository;
+import com.insurance.repository.AppointmentRepository;
+import com.insurance.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams full-table exports straight to an output stream.
+ * Rows come from cursor-based projection queries with a fixed fetch size and are written
+ * one at a time, so heap usage does not depend on the number of rows exported.
+ */
+@Service
+public class ExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private static final Map<String, Function<AppointmentExportRow, Object>> APPOINTMENT_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<AIQueryLogExportRow, Object>> AI_QUERY_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<NotificationExportRow, Object>> NOTIFICATION_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        APPOINTMENT_COLUMNS.put("id", AppointmentExportRow::getId);
+        APPOINTMENT_COLUMNS.put("customerId", AppointmentExportRow::getCustomerId);
+        APPOINTMENT_COLUMNS.put("customerName", AppointmentExportRow::getCustomerName);
+        APPOINTMENT_COLUMNS.put("customerEmail", AppointmentExportRow::getCustomerEmail);
+        APPOINTMENT_COLUMNS.put("agentId", AppointmentExportRow::getAgentId);
+        APPOINTMENT_COLUMNS.put("agentName", AppointmentExportRow::getAgentName);
+        APPOINTMENT_COLUMNS.put("appointmentDateTime", AppointmentExportRow::getAppointmentDateTime);
+        APPOINTMENT_COLUMNS.put("status", AppointmentExportRow::getStatus);
+        APPOINTMENT_COLUMNS.put("type", AppointmentExportRow::getType);
+        APPOINTMENT_COLUMNS.put("notes", AppointmentExportRow::getNotes);
+        APPOINTMENT_COLUMNS.put("cancellationReason", AppointmentExportRow::getCancellationReason);
+        APPOINTMENT_COLUMNS.put("createdAt", AppointmentExportRow::getCreatedAt);
+        APPOINTMENT_COLUMNS.put("updatedAt", AppointmentExportRow::getUpdatedAt);
+
+        AI_QUERY_COLUMNS.put("id", AIQueryLogExportRow::getId);
+        AI_QUERY_COLUMNS.put("userId", AIQueryLogExportRow::getUserId);
+        AI_QUERY_COLUMNS.put("question", AIQueryLogExportRow::getQuestion);
+        AI_QUERY_COLUMNS.put("answer", AIQueryLogExportRow::getAnswer);
+        AI_QUERY_COLUMNS.put("category", AIQueryLogExportRow::getCategory);
+        AI_QUERY_COLUMNS.put("isVoiceQuery", AIQueryLogExportRow::getIsVoiceQuery);
+        AI_QUERY_COLUMNS.put("responseTime", AIQueryLogExportRow::getResponseTime);
+        AI_QUERY_COLUMNS.put("wasHelpful", AIQueryLogExportRow::getWasHelpful);
+        AI_QUERY_COLUMNS.put("createdAt", AIQueryLogExportRow::getCreatedAt);
+
+        NOTIFICATION_COLUMNS.put("id", NotificationExportRow::getId);
+        NOTIFICATION_COLUMNS.put("userId", NotificationExportRow::getUserId);
+        NOTIFICATION_COLUMNS.put("appointmentId", NotificationExportRow::getAppointmentId);
+        NOTIFICATION_COLUMNS.put("type", NotificationExportRow::getType);
+        NOTIFICATION_COLUMNS.put("subject", NotificationExportRow::getSubject);
+        NOTIFICATION_COLUMNS.put("message", NotificationExportRow::getMessage);
+        NOTIFICATION_COLUMNS.put("isRead", NotificationExportRow::getIsRead);
+        NOTIFICATION_COLUMNS.put("emailSent", NotificationExportRow::getEmailSent);
+        NOTIFICATION_COLUMNS.put("createdAt", NotificationExportRow::getCreatedAt);
+        NOTIFICATION_COLUMNS.put("readAt", NotificationExportRow::getReadAt);
+    }
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AIQueryLogRepository queryLogRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportAppointments(OutputStream out, Format format) throws IOException {
+        try (Stream<AppointmentExportRow> rows = appointmentRepository.streamAllForExport()) {
+            write(rows, out, format, APPOINTMENT_COLUMNS);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAIQueryLogs(OutputStream out, Format format) throws IOException {
+        try (Stream<AIQueryLogExportRow> rows = queryLogRepository.streamAllForExport()) {
+            write(rows, out, format, AI_QUERY_COLUMNS);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportNotifications(OutputStream out, Format format) throws IOException {
+        try (Stream<NotificationExportRow> rows = notificationRepository.streamAllForExport()) {
+            write(rows, out, format, NOTIFICATION_COLUMNS);
+        }
+    }
+
+    private <T> void write(Stream<T> rows, OutputStream out, Format format,
+                           Map<String, Function<T, Object>> columns) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        Iterator<T> iterator = rows.iterator();
+
+        if (format == Format.NDJSON) {
+            SequenceWriter sequence = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+            boolean empty = true;
+            while (iterator.hasNext()) {
+                sequence.write(iterator.next());
+                empty = false;
+            }
+            sequence.flush();
+            if (!empty) {
+                writer.write('\n');
+            }
+        } else {
+            writer.write(String.join(",", columns.keySet()));
+            writer.write("\r\n");
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                boolean first = true;
+                for (Function<T, Object> column : columns.values()) {
+                    if (!first) {
+                        writer.write(',');
+                    }
+                    writeCsvValue(writer, column.apply(row));
+                    first = false;
+                }
+                writer.write("\r\n");
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean needsQuoting = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!needsQuoting) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
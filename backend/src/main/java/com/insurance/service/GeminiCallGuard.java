@@ -0,0 +1,156 @@
+package com.insurance.service;
+
+import com.insurance.util.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Protects the application from a slow or failing Gemini API. Each outbound call needs a
+ * permit from a non-blocking bulkhead (ai.gemini.max-concurrent-calls) and from a circuit
+ * breaker, and must finish within ai.gemini.timeout-ms. Rejected calls fail immediately with
+ * {@link RejectedCallException} so callers can answer from a local fallback instead.
+ */
+@Component
+public class GeminiCallGuard {
+
+    public static class RejectedCallException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public RejectedCallException(String reason) {
+            super("Gemini call rejected: " + reason);
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.gemini.max-concurrent-calls:20}")
+    private int maxConcurrentCalls;
+
+    @Value("${ai.gemini.timeout-ms:15000}")
+    private long timeoutMs;
+
+    @Value("${ai.gemini.breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${ai.gemini.breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${ai.gemini.breaker.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${ai.gemini.breaker.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    @Value("${ai.gemini.breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    private Semaphore bulkhead;
+    private CircuitBreaker breaker;
+    private Duration timeout;
+    private Counter circuitOpenRejections;
+    private Counter bulkheadRejections;
+    private Counter timeouts;
+
+    @PostConstruct
+    public void init() {
+        bulkhead = new Semaphore(maxConcurrentCalls);
+        timeout = Duration.ofMillis(timeoutMs);
+        breaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDurationMs, halfOpenCalls,
+                state -> {
+                    System.out.println("Gemini circuit breaker is now " + state);
+                    meterRegistry.counter("ai.gemini.breaker.transitions", "state", state.name()).increment();
+                });
+
+        // 0 = closed, 1 = half-open, 2 = open
+        Gauge.builder("ai.gemini.breaker.state", breaker, b -> switch (b.getState()) {
+                    case CLOSED -> 0;
+                    case HALF_OPEN -> 1;
+                    case OPEN -> 2;
+                })
+                .description("Gemini circuit breaker state (0 closed, 1 half-open, 2 open)")
+                .register(meterRegistry);
+        Gauge.builder("ai.gemini.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free Gemini call slots")
+                .register(meterRegistry);
+        circuitOpenRejections = Counter.builder("ai.gemini.rejected")
+                .description("Gemini calls rejected without being attempted")
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        bulkheadRejections = Counter.builder("ai.gemini.rejected")
+                .description("Gemini calls rejected without being attempted")
+                .tag("reason", "bulkhead_full")
+                .register(meterRegistry);
+        timeouts = Counter.builder("ai.gemini.timeouts")
+                .description("Gemini calls that missed their deadline")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> guard(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            RejectedCallException rejection = acquire();
+            if (rejection != null) {
+                return Mono.error(rejection);
+            }
+            // Deferred so a supplier that throws still releases its permits in doFinally
+            return Mono.defer(call)
+                    .timeout(timeout)
+                    .doOnSuccess(value -> breaker.onSuccess())
+                    .doOnError(this::onError)
+                    .doOnCancel(breaker::onIgnored)
+                    .doFinally(signal -> bulkhead.release());
+        });
+    }
+
+    /**
+     * Streaming variant; the deadline applies to the first element and to each gap between
+     * elements, so a long answer that keeps streaming is not cut off.
+     */
+    public <T> Flux<T> guardStream(Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            RejectedCallException rejection = acquire();
+            if (rejection != null) {
+                return Flux.error(rejection);
+            }
+            return Flux.defer(call)
+                    .timeout(timeout)
+                    .doOnComplete(breaker::onSuccess)
+                    .doOnError(this::onError)
+                    .doOnCancel(breaker::onIgnored)
+                    .doFinally(signal -> bulkhead.release());
+        });
+    }
+
+    private RejectedCallException acquire() {
+        if (!breaker.tryAcquirePermission()) {
+            circuitOpenRejections.increment();
+            return new RejectedCallException("circuit open");
+        }
+        if (!bulkhead.tryAcquire()) {
+            breaker.onIgnored();
+            bulkheadRejections.increment();
+            return new RejectedCallException("too many concurrent calls");
+        }
+        return null;
+    }
+
+    private void onError(Throwable error) {
+        if (error instanceof TimeoutException) {
+            timeouts.increment();
+        }
+        breaker.onFailure();
+    }
+}
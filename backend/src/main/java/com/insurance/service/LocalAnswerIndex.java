@@ -0,0 +1,151 @@
+package com.insurance.service;
+
+import com.insurance.event.AgentContextChangedEvent;
+import com.insurance.repository.AIQueryLogRepository;
+import com.insurance.util.Bm25Index;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Answers repeat questions without calling Gemini. Curated FAQ entries and Gemini answers that
+ * an admin reviewed as helpful are kept in an in-process BM25 index keyed by the normalized
+ * question; a lookup only answers when the best match clears ai.local-index.min-confidence.
+ * Gemini answers quote the agent data in the prompt, so logged entries are dropped whenever the
+ * agent context changes and only answers logged since then are indexed again.
+ */
+@Service
+public class LocalAnswerIndex {
+
+    private static final String FAQ_KEY_PREFIX = "faq|";
+
+    @Autowired
+    private AIQueryLogRepository queryLogRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.local-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.local-index.min-confidence:0.8}")
+    private double minConfidence;
+
+    @Value("${ai.local-index.max-documents:50000}")
+    private int maxDocuments;
+
+    @Value("${ai.local-index.faq:classpath:ai-faq.txt}")
+    private Resource faq;
+
+    private final Bm25Index<String> index = new Bm25Index<>();
+    private Set<String> loggedKeys = new HashSet<>();
+    private LocalDateTime loggedSince = LocalDateTime.now();
+    private volatile boolean stale = true;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Gauge.builder("ai.local-index.documents", index, Bm25Index::size)
+                .description("Questions in the local answer index")
+                .register(meterRegistry);
+        if (enabled) {
+            loadFaq();
+        }
+    }
+
+    /**
+     * The stored answer for the closest indexed question, if it is a confident match.
+     */
+    public Optional<String> findAnswer(String question) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<String> answer = index.search(question)
+                .filter(hit -> hit.confidence() >= minConfidence)
+                .map(Bm25Index.Hit::value);
+        meterRegistry.counter("ai.local-index.lookups", "result", answer.isPresent() ? "hit" : "miss").increment();
+        return answer;
+    }
+
+    /**
+     * Records an admin's verdict on a logged answer; helpful Gemini answers are indexed on the next refresh.
+     */
+    @Transactional
+    public void review(Long logId, boolean helpful) {
+        if (queryLogRepository.markReviewed(logId, helpful, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("AI query log not found: " + logId);
+        }
+        stale = true;
+    }
+
+    @EventListener
+    public synchronized void onAgentContextChanged(AgentContextChangedEvent event) {
+        loggedKeys.forEach(index::remove);
+        loggedKeys = new HashSet<>();
+        loggedSince = LocalDateTime.now();
+        stale = true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${ai.local-index.refresh-interval-ms:60000}",
+               initialDelayString = "${ai.local-index.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        if (!enabled || !stale) {
+            return;
+        }
+        stale = false;
+        try {
+            // Reviewed answers are few, so the logged part of the index is simply rebuilt
+            Map<String, String[]> reviewed = new HashMap<>();
+            for (Object[] row : queryLogRepository.findReviewedAnswersSince(loggedSince, PageRequest.of(0, maxDocuments))) {
+                String question = (String) row[0];
+                String answer = (String) row[1];
+                String key = AIAnswerCache.normalize(question);
+                // Curated answers take precedence over logged ones; rows are newest first
+                if (!answer.isBlank() && !AIService.REPHRASE_ANSWER.equals(answer)
+                        && !index.containsKey(FAQ_KEY_PREFIX + key)) {
+                    reviewed.putIfAbsent(key, new String[]{question, answer});
+                }
+            }
+            loggedKeys.stream().filter(key -> !reviewed.containsKey(key)).forEach(index::remove);
+            reviewed.forEach((key, entry) -> index.put(key, entry[0], entry[1]));
+            loggedKeys = new HashSet<>(reviewed.keySet());
+            System.out.println("Local answer index: " + reviewed.size() + " reviewed answers, " + index.size() + " indexed");
+        } catch (Exception e) {
+            stale = true;
+            System.err.println("Local answer index refresh failed: " + e.getMessage());
+        }
+    }
+
+    private void loadFaq() throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(faq.getInputStream(), StandardCharsets.UTF_8))) {
+            String question = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("Q:")) {
+                    question = line.substring(2).trim();
+                } else if (line.startsWith("A:") && question != null) {
+                    index.put(FAQ_KEY_PREFIX + AIAnswerCache.normalize(question), question, line.substring(2).trim());
+                    question = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.insurance.service;
+
+import com.insurance.dto.PolicyAggregateDTO;
+import com.insurance.dto.PolicyPortfolioDTO;
+import com.insurance.entity.InsurancePolicy;
+import com.insurance.repository.InsurancePolicyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Premium and coverage aggregates for the policy portfolio.
+ * Sums come straight from grouped SQL queries as exact BigDecimals; policy entities are never loaded.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PolicyPortfolioService {
+
+    private static final int AVERAGE_SCALE = 2;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    public PolicyPortfolioDTO getPortfolio() {
+        Map<String, PolicyAggregateDTO> byType = new LinkedHashMap<>();
+        for (InsurancePolicy.PolicyType type : InsurancePolicy.PolicyType.values()) {
+            byType.put(type.name(), aggregate(0L, BigDecimal.ZERO, BigDecimal.ZERO));
+        }
+        for (Object[] row : policyRepository.sumGroupedByType()) {
+            byType.put(((InsurancePolicy.PolicyType) row[0]).name(), aggregate(row));
+        }
+
+        Map<String, PolicyAggregateDTO> byStatus = new LinkedHashMap<>();
+        for (InsurancePolicy.PolicyStatus status : InsurancePolicy.PolicyStatus.values()) {
+            byStatus.put(status.name(), aggregate(0L, BigDecimal.ZERO, BigDecimal.ZERO));
+        }
+        long count = 0;
+        BigDecimal premium = BigDecimal.ZERO;
+        BigDecimal coverage = BigDecimal.ZERO;
+        for (Object[] row : policyRepository.sumGroupedByStatus()) {
+            PolicyAggregateDTO aggregate = aggregate(row);
+            byStatus.put(((InsurancePolicy.PolicyStatus) row[0]).name(), aggregate);
+            count += aggregate.getCount();
+            premium = premium.add(aggregate.getTotalPremium());
+            coverage = coverage.add(aggregate.getTotalCoverage());
+        }
+
+        LocalDate today = LocalDate.now();
+        Object[] expiring = policyRepository.countExpiringByStatus(
+                InsurancePolicy.PolicyStatus.ACTIVE, today, today.plusDays(30), today.plusDays(60), today.plusDays(90)).get(0);
+
+        return PolicyPortfolioDTO.builder()
+                .overall(aggregate(count, premium, coverage))
+                .byType(Collections.unmodifiableMap(byType))
+                .byStatus(Collections.unmodifiableMap(byStatus))
+                .expiringIn30Days(toLong(expiring[0]))
+                .expiringIn60Days(toLong(expiring[1]))
+                .expiringIn90Days(toLong(expiring[2]))
+                .build();
+    }
+
+    private static PolicyAggregateDTO aggregate(Object[] row) {
+        return aggregate((Long) row[1], toBigDecimal(row[2]), toBigDecimal(row[3]));
+    }
+
+    private static PolicyAggregateDTO aggregate(long count, BigDecimal totalPremium, BigDecimal totalCoverage) {
+        return PolicyAggregateDTO.builder()
+                .count(count)
+                .totalPremium(totalPremium)
+                .averagePremium(average(totalPremium, count))
+                .totalCoverage(totalCoverage)
+                .averageCoverage(average(totalCoverage, count))
+                .build();
+    }
+
+    // AVG() in SQL would go through a floating-point type on some databases
+    private static BigDecimal average(BigDecimal total, long count) {
+        if (count == 0) {
+            return BigDecimal.ZERO.setScale(AVERAGE_SCALE);
+        }
+        return total.divide(BigDecimal.valueOf(count), AVERAGE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
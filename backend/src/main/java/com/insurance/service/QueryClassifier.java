@@ -0,0 +1,98 @@
+package com.insurance.service;
+
+import com.insurance.util.AhoCorasick;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Assigns AI questions a category and intent flags in a single pass, using an Aho-Corasick
+ * automaton built once from the keyword table at ai.classifier.keywords. The table lists
+ * categories in priority order; the highest-priority category with a match wins, and every
+ * intent with a match is reported.
+ */
+@Component
+public class QueryClassifier {
+
+    public static final String DEFAULT_CATEGORY = "GENERAL";
+    public static final String APPOINTMENT_INTENT = "APPOINTMENT";
+
+    private static final String INTENT_PREFIX = "intent.";
+
+    public record Classification(String category, Set<String> intents) {
+
+        public boolean hasIntent(String intent) {
+            return intents.contains(intent);
+        }
+    }
+
+    // Categories carry their priority (lower wins); intents have none
+    private record Target(String name, boolean intent, int priority) {
+    }
+
+    @Value("${ai.classifier.keywords:classpath:query-keywords.txt}")
+    private Resource keywordTable;
+
+    private AhoCorasick<Target> automaton;
+
+    @PostConstruct
+    public void init() throws IOException {
+        AhoCorasick.Builder<Target> builder = AhoCorasick.builder();
+        int categories = 0;
+        int keywords = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(keywordTable.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int colon = line.indexOf(':');
+                if (colon <= 0) {
+                    throw new RuntimeException("Invalid classifier keyword line " + lineNumber + ": " + line);
+                }
+                String name = line.substring(0, colon).trim();
+                Target target = name.startsWith(INTENT_PREFIX)
+                        ? new Target(name.substring(INTENT_PREFIX.length()), true, Integer.MAX_VALUE)
+                        : new Target(name, false, categories++);
+                for (String keyword : line.substring(colon + 1).split(",")) {
+                    keyword = keyword.trim();
+                    if (keyword.isEmpty()) {
+                        continue;
+                    }
+                    boolean prefix = keyword.endsWith("*");
+                    builder.add(prefix ? keyword.substring(0, keyword.length() - 1) : keyword, prefix, target);
+                    keywords++;
+                }
+            }
+        }
+        automaton = builder.build();
+        System.out.println("Query classifier loaded " + keywords + " keywords for " + categories + " categories");
+    }
+
+    public Classification classify(String question) {
+        if (question == null || question.isEmpty()) {
+            return new Classification(DEFAULT_CATEGORY, Set.of());
+        }
+        Target[] best = new Target[1];
+        Set<String> intents = new HashSet<>();
+        automaton.search(question, (target, start, end) -> {
+            if (target.intent()) {
+                intents.add(target.name());
+            } else if (best[0] == null || target.priority() < best[0].priority()) {
+                best[0] = target;
+            }
+        });
+        return new Classification(best[0] != null ? best[0].name() : DEFAULT_CATEGORY, intents);
+    }
+}
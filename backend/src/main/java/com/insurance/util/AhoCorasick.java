@@ -0,0 +1,112 @@
+package com.insurance.util;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick multi-pattern matcher that finds every keyword in one pass over the text.
+ * Matching is case-insensitive and word-bounded: a keyword only matches when it starts and
+ * ends at a word boundary, so "car" does not match "care" or "scar". A keyword added with
+ * {@code prefix = true} only needs the boundary at its start ("claim" as a prefix also matches
+ * "claims" and "claimed"). Built once; searching is thread-safe.
+ */
+public class AhoCorasick<T> {
+
+    @FunctionalInterface
+    public interface MatchHandler<T> {
+        void onMatch(T payload, int start, int end);
+    }
+
+    private record Keyword<T>(T payload, int length, boolean prefix) {
+    }
+
+    private static class Node<T> {
+        private final Map<Character, Node<T>> next = new HashMap<>();
+        private final List<Keyword<T>> outputs = new ArrayList<>();
+        private Node<T> fail;
+    }
+
+    private final Node<T> root;
+
+    private AhoCorasick(Node<T> root) {
+        this.root = root;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Reports each word-bounded keyword occurrence with its [start, end) position in the text.
+     */
+    public void search(CharSequence text, MatchHandler<T> handler) {
+        Node<T> node = root;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            Node<T> next;
+            while ((next = node.next.get(c)) == null && node != root) {
+                node = node.fail;
+            }
+            node = next != null ? next : root;
+
+            if (node.outputs.isEmpty()) {
+                continue;
+            }
+            boolean endsWord = i + 1 == length || !isWordChar(text.charAt(i + 1));
+            for (Keyword<T> keyword : node.outputs) {
+                int start = i + 1 - keyword.length();
+                boolean startsWord = start == 0 || !isWordChar(text.charAt(start - 1));
+                if (startsWord && (endsWord || keyword.prefix())) {
+                    handler.onMatch(keyword.payload(), start, i + 1);
+                }
+            }
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    public static class Builder<T> {
+
+        private final Node<T> root = new Node<>();
+
+        public Builder<T> add(String keyword, boolean prefix, T payload) {
+            String normalized = keyword.trim().toLowerCase(Locale.ROOT);
+            if (normalized.isEmpty()) {
+                throw new RuntimeException("Empty keyword");
+            }
+            Node<T> node = root;
+            for (int i = 0; i < normalized.length(); i++) {
+                node = node.next.computeIfAbsent(normalized.charAt(i), c -> new Node<>());
+            }
+            node.outputs.add(new Keyword<>(payload, normalized.length(), prefix));
+            return this;
+        }
+
+        public AhoCorasick<T> build() {
+            // Breadth-first so every node's failure target is finished before its children
+            Deque<Node<T>> queue = new ArrayDeque<>();
+            for (Node<T> child : root.next.values()) {
+                child.fail = root;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                Node<T> node = queue.poll();
+                for (Map.Entry<Character, Node<T>> entry : node.next.entrySet()) {
+                    Node<T> child = entry.getValue();
+                    Node<T> fail = node.fail;
+                    while (fail != root && !fail.next.containsKey(entry.getKey())) {
+                        fail = fail.fail;
+                    }
+                    Node<T> target = fail.next.get(entry.getKey());
+                    child.fail = target != null && target != child ? target : root;
+                    // Keywords ending at the failure node also end here
+                    child.outputs.addAll(child.fail.outputs);
+                    queue.add(child);
+                }
+            }
+            return new AhoCorasick<>(root);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.insurance.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index with Okapi BM25 ranking (k1 = 1.2, b = 0.75) over short texts.
+ * Each document has a key; putting an existing key replaces the document. Replaced documents
+ * are tombstoned and the postings are compacted once tombstones outnumber live documents.
+ *
+ * <p>BM25 scores are not comparable across queries, so {@link #search} also reports a
+ * confidence in [0, 1]: the IDF-weighted overlap of the query's and the document's terms
+ * (Dice coefficient), which is 1 only when both contain the same terms.
+ * Reads and writes are guarded by a read-write lock.
+ */
+public class Bm25Index<T> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int CONFIDENCE_CANDIDATES = 5;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "can", "could", "do", "does", "for", "from",
+            "how", "i", "if", "in", "is", "it", "me", "my", "of", "on", "or", "our", "please", "should",
+            "so", "that", "the", "this", "to", "we", "what", "when", "where", "which", "who", "why",
+            "will", "with", "would", "you", "your");
+
+    public record Hit<T>(String key, T value, double score, double confidence) {
+    }
+
+    private record Posting(int doc, int termFrequency) {
+    }
+
+    private static class Document<T> {
+        private final String key;
+        private final Map<String, Integer> termFrequencies;
+        private final int length;
+        private T value;
+        private boolean live = true;
+
+        Document(String key, Map<String, Integer> termFrequencies, int length, T value) {
+            this.key = key;
+            this.termFrequencies = termFrequencies;
+            this.length = length;
+            this.value = value;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Document<T>> documents = new ArrayList<>();
+    private final Map<String, Integer> documentsByKey = new HashMap<>();
+    private final Map<String, List<Posting>> postings = new HashMap<>();
+    private final Map<String, Integer> documentFrequencies = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * Lowercases, splits on anything that is not a letter or digit and drops stop words
+     * and single characters (such as the "s" of "what's").
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                String term = token.toString();
+                if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+                    tokens.add(term);
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    public void put(String key, String text, T value) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String token : tokens) {
+            termFrequencies.merge(token, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = documentsByKey.get(key);
+            if (existing != null) {
+                remove(documents.get(existing));
+            }
+            int docId = documents.size();
+            documents.add(new Document<>(key, termFrequencies, tokens.size(), value));
+            documentsByKey.put(key, docId);
+            termFrequencies.forEach((term, frequency) -> {
+                postings.computeIfAbsent(term, t -> new ArrayList<>()).add(new Posting(docId, frequency));
+                documentFrequencies.merge(term, 1, Integer::sum);
+            });
+            totalLength += tokens.size();
+
+            if (documents.size() - documentsByKey.size() > documentsByKey.size()) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = documentsByKey.get(key);
+            if (existing == null) {
+                return false;
+            }
+            remove(documents.get(existing));
+            if (documents.size() - documentsByKey.size() > documentsByKey.size()) {
+                compact();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean containsKey(String key) {
+        lock.readLock().lock();
+        try {
+            return documentsByKey.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentsByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best match for the query among the top BM25 candidates, chosen by confidence,
+     * or empty if no document shares a term with the query.
+     */
+    public Optional<Hit<T>> search(String query) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        if (queryTerms.isEmpty()) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveCount = documentsByKey.size();
+            if (liveCount == 0) {
+                return Optional.empty();
+            }
+            double averageLength = (double) totalLength / liveCount;
+
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : queryTerms) {
+                List<Posting> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = idf(term, liveCount);
+                for (Posting posting : termPostings) {
+                    Document<T> document = documents.get(posting.doc());
+                    if (!document.live) {
+                        continue;
+                    }
+                    double tf = posting.termFrequency();
+                    double norm = K1 * (1 - B + B * document.length / averageLength);
+                    scores.merge(posting.doc(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+            if (scores.isEmpty()) {
+                return Optional.empty();
+            }
+
+            double queryWeight = 0;
+            for (String term : queryTerms) {
+                queryWeight += idf(term, liveCount);
+            }
+            final double queryIdf = queryWeight;
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed())
+                    .limit(CONFIDENCE_CANDIDATES)
+                    .map(entry -> {
+                        Document<T> document = documents.get(entry.getKey());
+                        return new Hit<>(document.key, document.value, entry.getValue(),
+                                confidence(queryTerms, queryIdf, document, liveCount));
+                    })
+                    .max(Comparator.comparingDouble(Hit<T>::confidence).thenComparingDouble(Hit<T>::score));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double confidence(Set<String> queryTerms, double queryIdf, Document<T> document, int liveCount) {
+        double shared = 0;
+        double documentIdf = 0;
+        for (String term : document.termFrequencies.keySet()) {
+            double idf = idf(term, liveCount);
+            documentIdf += idf;
+            if (queryTerms.contains(term)) {
+                shared += idf;
+            }
+        }
+        return 2 * shared / (queryIdf + documentIdf);
+    }
+
+    private double idf(String term, int liveCount) {
+        int df = documentFrequencies.getOrDefault(term, 0);
+        return Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+    }
+
+    private void remove(Document<T> document) {
+        document.live = false;
+        document.value = null;
+        totalLength -= document.length;
+        document.termFrequencies.keySet().forEach(term ->
+                documentFrequencies.computeIfPresent(term, (t, df) -> df > 1 ? df - 1 : null));
+        documentsByKey.remove(document.key);
+    }
+
+    private void compact() {
+        List<Document<T>> live = new ArrayList<>(documentsByKey.size());
+        for (Document<T> document : documents) {
+            if (document.live) {
+                live.add(document);
+            }
+        }
+        documents.clear();
+        documentsByKey.clear();
+        postings.clear();
+        for (Document<T> document : live) {
+            int docId = documents.size();
+            documents.add(document);
+            documentsByKey.put(document.key, docId);
+            document.termFrequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new ArrayList<>()).add(new Posting(docId, frequency)));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.insurance.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Single-pass parser for Gemini generateContent responses (and each streamGenerateContent
+ * chunk). Reads the payload as a JSON token stream without building a tree, concatenates
+ * the text of every part of the first candidate and captures its finish reason and the
+ * token usage. Escapes, including unicode escapes and surrogate pairs, are decoded by the
+ * tokenizer. Other candidates and unknown fields are skipped.
+ */
+public final class GeminiResponseParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public record Result(String text, String finishReason,
+                         Integer promptTokens, Integer candidateTokens, Integer totalTokens) {
+
+        public boolean hasText() {
+            return !text.isEmpty();
+        }
+    }
+
+    private GeminiResponseParser() {
+    }
+
+    public static Result parse(byte[] response) {
+        try (JsonParser parser = JSON_FACTORY.createParser(response)) {
+            return parse(parser);
+        } catch (IOException e) {
+            throw new RuntimeException("Malformed Gemini response: " + e.getMessage(), e);
+        }
+    }
+
+    public static Result parse(String response) {
+        try (JsonParser parser = JSON_FACTORY.createParser(response)) {
+            return parse(parser);
+        } catch (IOException e) {
+            throw new RuntimeException("Malformed Gemini response: " + e.getMessage(), e);
+        }
+    }
+
+    private static Result parse(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new RuntimeException("Malformed Gemini response: expected a JSON object");
+        }
+        StringBuilder text = new StringBuilder();
+        String finishReason = null;
+        Integer promptTokens = null;
+        Integer candidateTokens = null;
+        Integer totalTokens = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("candidates".equals(field) && value == JsonToken.START_ARRAY) {
+                boolean first = true;
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    if (first) {
+                        finishReason = readCandidate(parser, text);
+                        first = false;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("usageMetadata".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String usageField = parser.currentName();
+                    JsonToken usageValue = parser.nextToken();
+                    if (usageValue != JsonToken.VALUE_NUMBER_INT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    switch (usageField) {
+                        case "promptTokenCount" -> promptTokens = parser.getIntValue();
+                        case "candidatesTokenCount" -> candidateTokens = parser.getIntValue();
+                        case "totalTokenCount" -> totalTokens = parser.getIntValue();
+                        default -> {
+                        }
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new Result(text.toString(), finishReason, promptTokens, candidateTokens, totalTokens);
+    }
+
+    // Positioned on the candidate's START_OBJECT; returns its finish reason
+    private static String readCandidate(JsonParser parser, StringBuilder text) throws IOException {
+        String finishReason = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("content".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String contentField = parser.currentName();
+                    JsonToken contentValue = parser.nextToken();
+                    if ("parts".equals(contentField) && contentValue == JsonToken.START_ARRAY) {
+                        readParts(parser, text);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("finishReason".equals(field) && value == JsonToken.VALUE_STRING) {
+                finishReason = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return finishReason;
+    }
+
+    private static void readParts(JsonParser parser, StringBuilder text) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("text".equals(field) && value == JsonToken.VALUE_STRING) {
+                    // Appends straight from the tokenizer's buffer
+                    text.append(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.insurance.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * HyperLogLog distinct-count sketch with 2^12 registers (about 1.6% standard error)
+ * over a 64-bit hash of the added ids. Sketches are mergeable: the merge of the sketches
+ * of two sets estimates the size of their union, and merging the same data twice is harmless.
+ * Adding and merging are lock-free and safe from any thread.
+ */
+public class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+    public static final double STANDARD_ERROR = 1.04 / Math.sqrt(REGISTER_COUNT);
+
+    // Below this estimate linear counting beats the raw estimator. Without HLL++ bias correction
+    // the raw estimate stays biased up to a few times m, and for m = 4096 the two error curves
+    // cross at about 2.8m (simulated); HLL++'s 3100 only applies to the bias-corrected estimate
+    private static final double LINEAR_COUNTING_THRESHOLD = 11500;
+
+    // One header byte holding the precision, then one byte per register
+    public static final int SERIALIZED_SIZE = 1 + REGISTER_COUNT;
+
+    private final AtomicIntegerArray registers = new AtomicIntegerArray(REGISTER_COUNT);
+
+    /**
+     * Returns true if the sketch changed.
+     */
+    public boolean add(long id) {
+        long hash = hash(id);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // Leading zeros of the remaining bits plus one; the guard bit caps it at 64 - PRECISION + 1
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        return raise(index, rank);
+    }
+
+    public boolean merge(HyperLogLog other) {
+        boolean changed = false;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            changed |= raise(i, other.registers.get(i));
+        }
+        return changed;
+    }
+
+    public boolean merge(byte[] serialized) {
+        checkSerialized(serialized);
+        boolean changed = false;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            changed |= raise(i, serialized[i + 1]);
+        }
+        return changed;
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeroRegisters = 0;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            int value = registers.get(i);
+            sum += 1.0 / (1L << value);
+            if (value == 0) {
+                zeroRegisters++;
+            }
+        }
+        if (zeroRegisters > 0) {
+            double linearCount = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeroRegisters);
+            if (linearCount <= LINEAR_COUNTING_THRESHOLD) {
+                return Math.round(linearCount);
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+        return Math.round(alpha * REGISTER_COUNT * REGISTER_COUNT / sum);
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[SERIALIZED_SIZE];
+        bytes[0] = PRECISION;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            bytes[i + 1] = (byte) registers.get(i);
+        }
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] serialized) {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.merge(serialized);
+        return sketch;
+    }
+
+    private boolean raise(int index, int value) {
+        int current = registers.get(index);
+        while (value > current) {
+            if (registers.compareAndSet(index, current, value)) {
+                return true;
+            }
+            current = registers.get(index);
+        }
+        return false;
+    }
+
+    private static void checkSerialized(byte[] serialized) {
+        if (serialized == null || serialized.length != SERIALIZED_SIZE || serialized[0] != PRECISION) {
+            throw new IllegalArgumentException("Not a serialized HyperLogLog sketch with precision " + PRECISION);
+        }
+    }
+
+    // MurmurHash3 64-bit finalizer; sequential ids spread evenly over all bits
+    private static long hash(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
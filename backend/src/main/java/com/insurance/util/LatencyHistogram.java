@@ -0,0 +1,113 @@
+package com.insurance.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket log-linear latency histogram in milliseconds.
+ * Values below 16 ms get one bucket each; above that every power of two is split into
+ * 16 linear sub-buckets, so any reported percentile is within ~6% of the true value.
+ * Values above {@link #MAX_VALUE_MS} are clamped into the last bucket.
+ * Recording is lock-free and safe from any thread.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 20;
+
+    public static final long MAX_VALUE_MS = (1L << (MAX_EXPONENT + 1)) - 1;
+    public static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void record(long valueMs) {
+        counts.incrementAndGet(bucketIndex(valueMs));
+    }
+
+    public void add(int bucketIndex, long count) {
+        counts.addAndGet(bucketIndex, count);
+    }
+
+    public long[] snapshot() {
+        long[] result = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current counts and resets them to zero, bucket by bucket.
+     */
+    public long[] drain() {
+        long[] result = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            result[i] = counts.getAndSet(i, 0);
+        }
+        return result;
+    }
+
+    public static int bucketIndex(long valueMs) {
+        long value = Math.max(0, Math.min(valueMs, MAX_VALUE_MS));
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) ((value >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    public static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return (1L << exponent) + ((long) subBucket << (exponent - SUB_BUCKET_BITS));
+    }
+
+    public static long bucketUpperBound(int index) {
+        return index + 1 < BUCKET_COUNT ? bucketLowerBound(index + 1) - 1 : MAX_VALUE_MS;
+    }
+
+    /**
+     * Value at the given quantile (0..1), reported as the midpoint of the bucket that contains it.
+     */
+    public static long percentile(long[] counts, double quantile) {
+        long total = totalCount(counts);
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (bucketLowerBound(i) + bucketUpperBound(i)) / 2;
+            }
+        }
+        return MAX_VALUE_MS;
+    }
+
+    public static double mean(long[] counts) {
+        long total = totalCount(counts);
+        if (total == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                sum += counts[i] * ((bucketLowerBound(i) + bucketUpperBound(i)) / 2.0);
+            }
+        }
+        return sum / total;
+    }
+
+    public static long totalCount(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
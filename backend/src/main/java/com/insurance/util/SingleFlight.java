@@ -0,0 +1,50 @@
+package com.insurance.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent asynchronous calls for the same key into one execution.
+ * The first caller for a key (the leader) starts the call; callers arriving before it completes
+ * get the same future and share its result or exception. The key is released as soon as the
+ * call completes, so nothing is cached beyond the in-flight call.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public Call<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> shared = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            return new Call<>(existing, true);
+        }
+
+        CompletableFuture<V> started;
+        try {
+            started = call.get();
+        } catch (Throwable t) {
+            started = CompletableFuture.failedFuture(t);
+        }
+        started.whenComplete((value, error) -> {
+            inFlight.remove(key, shared);
+            if (error != null) {
+                shared.completeExceptionally(error);
+            } else {
+                shared.complete(value);
+            }
+        });
+        return new Call<>(shared, false);
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * The shared result, and whether this caller joined another caller's execution.
+     */
+    public record Call<V>(CompletableFuture<V> result, boolean shared) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.insurance.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keyed token buckets held in memory. Each bucket refills continuously up to its capacity;
+ * a request takes one token or is told how long to wait for the next one. Buckets are
+ * updated under one of a fixed set of striped locks, so unrelated keys rarely contend.
+ *
+ * <p>Memory is bounded: buckets idle for longer than it takes to refill completely carry no
+ * state and are removed by {@link #evictIdle}, and once {@code maxBuckets} keys are tracked
+ * any new key shares the overflow bucket named by the caller until eviction frees space.
+ * The cap is soft: the size check and the insert are separate steps, so new keys arriving
+ * together can exceed it by up to the number of concurrent callers.
+ */
+public class TokenBucketLimiter {
+
+    private static class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+        private volatile long lastUsedNanos;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefillNanos = now;
+            this.lastUsedNanos = now;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Object[] locks;
+    private final int maxBuckets;
+
+    public TokenBucketLimiter(int stripes, int maxBuckets) {
+        this.locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+        }
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Takes a token from the key's bucket, or from the overflow key's bucket when the limiter is
+     * full. Returns 0 if the request is admitted, otherwise the number of milliseconds until a
+     * token will be available. Keys with different limits should use different overflow keys.
+     */
+    public long tryAcquire(String key, String overflowKey, int capacity, double refillPerSecond) {
+        long now = System.nanoTime();
+        String bucketKey = buckets.size() >= maxBuckets && !buckets.containsKey(key) ? overflowKey : key;
+
+        synchronized (lockFor(bucketKey)) {
+            // Looked up under the lock so a bucket evicted meanwhile is never used
+            Bucket bucket = buckets.computeIfAbsent(bucketKey, k -> new Bucket(capacity, now));
+            double elapsedSeconds = (now - bucket.lastRefillNanos) / 1_000_000_000.0;
+            if (elapsedSeconds > 0) {
+                bucket.tokens = Math.min(capacity, bucket.tokens + elapsedSeconds * refillPerSecond);
+                bucket.lastRefillNanos = now;
+            }
+            bucket.lastUsedNanos = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / refillPerSecond * 1000);
+        }
+    }
+
+    /**
+     * Removes buckets unused for at least {@code idleMillis}; with an idle time of at least one
+     * full refill this never changes the outcome of later requests.
+     */
+    public int evictIdle(long idleMillis) {
+        long cutoff = System.nanoTime() - idleMillis * 1_000_000L;
+        int evicted = 0;
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            if (entry.getValue().lastUsedNanos >= cutoff) {
+                continue;
+            }
+            synchronized (lockFor(entry.getKey())) {
+                // Re-checked under the lock: a request may have used the bucket since
+                Bucket bucket = buckets.get(entry.getKey());
+                if (bucket != null && bucket.lastUsedNanos < cutoff && buckets.remove(entry.getKey(), bucket)) {
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private Object lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), locks.length)];
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
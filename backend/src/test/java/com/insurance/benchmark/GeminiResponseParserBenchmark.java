@@ -0,0 +1,93 @@
+package com.insurance.benchmark;
+
+import com.insurance.util.GeminiResponseParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link GeminiResponseParser#parse(byte[])} with the indexOf/replace extraction it
+ * replaced, which decoded the whole body to a String first. Run with the GC profiler to see
+ * allocation per response, from backend/ (see StubLlmServer for building target/cp.txt):
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main \
+ *     GeminiResponseParserBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeminiResponseParserBenchmark {
+
+    private static final String SENTENCE = "Term life insurance covers you for a fixed period at a lower premium, "
+            + "while whole life lasts your lifetime and builds \\\"cash value\\\" \\u2014 an agent can compare both.\\n";
+
+    // Answer length in sentences; 4 is a typical 2-4 sentence reply
+    @Param({"4", "32"})
+    public int sentences;
+
+    private byte[] response;
+
+    @Setup
+    public void setUp() {
+        String text = SENTENCE.repeat(sentences);
+        response = ("{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}],\"role\":\"model\"},"
+                + "\"finishReason\":\"STOP\",\"index\":0,\"safetyRatings\":["
+                + "{\"category\":\"HARM_CATEGORY_SEXUALLY_EXPLICIT\",\"probability\":\"NEGLIGIBLE\"},"
+                + "{\"category\":\"HARM_CATEGORY_HATE_SPEECH\",\"probability\":\"NEGLIGIBLE\"},"
+                + "{\"category\":\"HARM_CATEGORY_HARASSMENT\",\"probability\":\"NEGLIGIBLE\"},"
+                + "{\"category\":\"HARM_CATEGORY_DANGEROUS_CONTENT\",\"probability\":\"NEGLIGIBLE\"}]}],"
+                + "\"usageMetadata\":{\"promptTokenCount\":612,\"candidatesTokenCount\":" + 30 * sentences
+                + ",\"totalTokenCount\":" + (612 + 30 * sentences) + "},\"modelVersion\":\"gemini-1.5-flash\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String streamingParser() {
+        return GeminiResponseParser.parse(response).text();
+    }
+
+    @Benchmark
+    public String previousExtraction() {
+        return extractTextFromGeminiResponse(new String(response, StandardCharsets.UTF_8));
+    }
+
+    // AIService.extractTextFromGeminiResponse before the parser replaced it, unchanged
+    private static String extractTextFromGeminiResponse(String response) {
+        try {
+            // Find the text content within the response
+            int textStart = response.indexOf("\"text\":");
+            if (textStart != -1) {
+                // Find the start of the actual text content
+                int contentStart = response.indexOf("\"", textStart + 8);
+
+                // Find the end by looking for the closing quote, handling escaped quotes
+                int contentEnd = contentStart + 1;
+                while (contentEnd < response.length()) {
+                    if (response.charAt(contentEnd) == '"' && response.charAt(contentEnd - 1) != '\\') {
+                        break;
+                    }
+                    contentEnd++;
+                }
+
+                if (contentEnd < response.length()) {
+                    String text = response.substring(contentStart + 1, contentEnd);
+                    // Unescape common escape sequences
+                    return text.replace("\\n", "\n")
+                               .replace("\\\"", "\"")
+                               .replace("\\r", "\r")
+                               .replace("\\t", "\t")
+                               .replace("\\\\", "\\");
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error extracting text from Gemini response: " + e.getMessage());
+        }
+        return "I'm here to help you with insurance-related questions. Could you please rephrase your query?";
+    }
+}
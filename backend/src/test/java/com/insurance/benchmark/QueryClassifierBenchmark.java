@@ -0,0 +1,110 @@
+package com.insurance.benchmark;
+
+import com.insurance.service.QueryClassifier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link QueryClassifier} (one Aho-Corasick pass for category and intents) with the
+ * lowercase-and-contains() chains it replaced, over a mix of short and long questions that
+ * land in every category. From backend/ (see StubLlmServer for building target/cp.txt):
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main \
+ *     QueryClassifierBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryClassifierBenchmark {
+
+    private static final String[] QUESTIONS = {
+            "What life insurance plans do you have?",
+            "Does health insurance cover hospital stays and prescriptions for my whole family?",
+            "How much would it cost to insure my car?",
+            "Water from a burst pipe ruined the carpet in my house last week, what should I do now?",
+            "How do I file a claim?",
+            "Can I schedule a meeting with an agent tomorrow afternoon?",
+            "What does my policy cover?",
+            "What are your premiums?",
+            "Hello",
+            "I'm comparing a few providers and would like to understand the difference between your plans, "
+                    + "what is included by default, what the usual waiting periods are and whether I can "
+                    + "talk to someone before deciding."
+    };
+
+    private QueryClassifier classifier;
+
+    @Setup
+    public void setUp() throws IOException {
+        classifier = new QueryClassifier();
+        ReflectionTestUtils.setField(classifier, "keywordTable", new ClassPathResource("query-keywords.txt"));
+        classifier.init();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void automaton(Blackhole blackhole) {
+        for (String question : QUESTIONS) {
+            blackhole.consume(classifier.classify(question));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void previousContainsChains(Blackhole blackhole) {
+        for (String question : QUESTIONS) {
+            blackhole.consume(categorizeQuery(question));
+            blackhole.consume(detectAppointmentIntent(question));
+        }
+    }
+
+    // AIService.categorizeQuery and detectAppointmentIntent before QueryClassifier, unchanged
+    private static String categorizeQuery(String question) {
+        String lowerQuestion = question.toLowerCase();
+
+        if (lowerQuestion.contains("life insurance") || lowerQuestion.contains("term insurance")) {
+            return "LIFE_INSURANCE";
+        } else if (lowerQuestion.contains("health") || lowerQuestion.contains("medical")) {
+            return "HEALTH_INSURANCE";
+        } else if (lowerQuestion.contains("auto") || lowerQuestion.contains("car") || lowerQuestion.contains("vehicle")) {
+            return "AUTO_INSURANCE";
+        } else if (lowerQuestion.contains("home") || lowerQuestion.contains("property")) {
+            return "HOME_INSURANCE";
+        } else if (lowerQuestion.contains("claim")) {
+            return "CLAIMS";
+        } else if (lowerQuestion.contains("appointment") || lowerQuestion.contains("schedule") || lowerQuestion.contains("meeting")) {
+            return "APPOINTMENT";
+        } else if (lowerQuestion.contains("policy") || lowerQuestion.contains("coverage")) {
+            return "POLICY_INQUIRY";
+        } else if (lowerQuestion.contains("premium") || lowerQuestion.contains("price") || lowerQuestion.contains("cost")) {
+            return "PRICING";
+        } else {
+            return "GENERAL";
+        }
+    }
+
+    private static boolean detectAppointmentIntent(String question) {
+        String lowerQuestion = question.toLowerCase();
+        return lowerQuestion.contains("appointment") ||
+               lowerQuestion.contains("schedule") ||
+               lowerQuestion.contains("book") ||
+               lowerQuestion.contains("meet") ||
+               lowerQuestion.contains("talk to") ||
+               lowerQuestion.contains("speak to") ||
+               lowerQuestion.contains("agent") ||
+               lowerQuestion.contains("consultation") ||
+               lowerQuestion.contains("discuss") ||
+               lowerQuestion.contains("call me") ||
+               lowerQuestion.contains("contact");
+    }
+}
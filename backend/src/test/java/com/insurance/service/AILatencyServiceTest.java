@@ -0,0 +1,76 @@
+package com.insurance.service;
+
+import com.insurance.repository.AILatencyBucketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AILatencyServiceTest {
+
+    private AILatencyBucketRepository repository;
+    private AILatencyService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AILatencyBucketRepository.class);
+        when(repository.sumByCategoryAndBucket(any())).thenReturn(List.of());
+        service = new AILatencyService();
+        ReflectionTestUtils.setField(service, "bucketRepository", repository);
+        ReflectionTestUtils.setField(service, "summaryWindowHours", 24);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private long pendingCount() {
+        return service.summarize().get(AILatencyService.ALL_CATEGORIES).getCount();
+    }
+
+    @Test
+    void keepsSamplesInMemoryUntilTheFlushCommits() {
+        service.recordSuccess("CLAIMS", 120);
+        service.recordError("CLAIMS", 900);
+
+        service.flush();
+
+        verify(repository, times(3)).addSamples(any(), eq("CLAIMS"), anyInt(), eq(1L));
+        assertEquals(2, pendingCount());
+
+        service.recordSuccess("CLAIMS", 130);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Only the flushed snapshot is subtracted; the later sample waits for the next flush
+        assertEquals(1, pendingCount());
+    }
+
+    @Test
+    void keepsSamplesWhenTheFlushRollsBack() {
+        service.recordSuccess("CLAIMS", 120);
+        service.recordSuccess("PRICING", 80);
+
+        service.flush();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(2, pendingCount());
+    }
+}
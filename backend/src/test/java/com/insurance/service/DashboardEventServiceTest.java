@@ -0,0 +1,97 @@
+package com.insurance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class DashboardEventServiceTest {
+
+    private static final int MAX_SUBSCRIBERS = 4;
+
+    private DashboardEventService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DashboardEventService();
+        ReflectionTestUtils.setField(service, "counterRegistry", mock(AppointmentCounterRegistry.class));
+        ReflectionTestUtils.setField(service, "latencyService", mock(AILatencyService.class));
+        ReflectionTestUtils.setField(service, "bufferSize", 16);
+        ReflectionTestUtils.setField(service, "maxSubscribers", MAX_SUBSCRIBERS);
+        ReflectionTestUtils.setField(service, "emitterTimeoutMs", 60000L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void concurrentSubscribersNeverExceedTheLimit() throws Exception {
+        int callers = MAX_SUBSCRIBERS * 4;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    service.subscribe();
+                    accepted.incrementAndGet();
+                } catch (RuntimeException e) {
+                    assertEquals("Too many dashboard subscribers", e.getMessage());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(MAX_SUBSCRIBERS, accepted.get());
+        assertEquals(MAX_SUBSCRIBERS, service.getSubscriberCount());
+    }
+
+    @Test
+    void closingASubscriberFreesItsSlotOnce() {
+        for (int i = 0; i < MAX_SUBSCRIBERS; i++) {
+            service.subscribe();
+        }
+        assertThrows(RuntimeException.class, service::subscribe);
+
+        Object subscriber = subscribers().iterator().next();
+        // Completion and error callbacks can both fire for the same emitter
+        ReflectionTestUtils.invokeMethod(service, "close", subscriber);
+        ReflectionTestUtils.invokeMethod(service, "close", subscriber);
+
+        // The slot comes back once the subscriber's initial drain has returned
+        Semaphore slots = (Semaphore) ReflectionTestUtils.getField(service, "slots");
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (slots.availablePermits() == 0) {
+                Thread.onSpinWait();
+            }
+        });
+        assertEquals(1, slots.availablePermits());
+        service.subscribe();
+        assertThrows(RuntimeException.class, service::subscribe);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Object> subscribers() {
+        return (Set<Object>) ReflectionTestUtils.getField(service, "subscribers");
+    }
+}
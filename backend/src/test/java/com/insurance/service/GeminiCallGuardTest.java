@@ -0,0 +1,65 @@
+package com.insurance.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiCallGuardTest {
+
+    private GeminiCallGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new GeminiCallGuard();
+        ReflectionTestUtils.setField(guard, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(guard, "maxConcurrentCalls", 1);
+        ReflectionTestUtils.setField(guard, "timeoutMs", 1000L);
+        ReflectionTestUtils.setField(guard, "windowSize", 20);
+        ReflectionTestUtils.setField(guard, "minimumCalls", 10);
+        ReflectionTestUtils.setField(guard, "failureRateThreshold", 0.5);
+        ReflectionTestUtils.setField(guard, "openDurationMs", 30000L);
+        ReflectionTestUtils.setField(guard, "halfOpenCalls", 1);
+        guard.init();
+    }
+
+    @Test
+    void releasesThePermitWhenTheCallThrowsWhileBeingBuilt() {
+        Supplier<Mono<String>> broken = () -> {
+            throw new IllegalArgumentException("Malformed URL");
+        };
+        for (int i = 0; i < 3; i++) {
+            RuntimeException error = assertThrows(RuntimeException.class, () -> guard.guard(broken).block());
+            assertInstanceOf(IllegalArgumentException.class, error);
+        }
+
+        assertEquals("answer", guard.guard(() -> Mono.just("answer")).block());
+    }
+
+    @Test
+    void releasesThePermitWhenAStreamThrowsWhileBeingBuilt() {
+        Supplier<Flux<String>> broken = () -> {
+            throw new IllegalArgumentException("Malformed URL");
+        };
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalArgumentException.class, () -> guard.guardStream(broken).collectList().block());
+        }
+
+        assertEquals(List.of("a", "b"), guard.guardStream(() -> Flux.just("a", "b")).collectList().block());
+    }
+
+    @Test
+    void rejectsCallsBeyondTheBulkhead() {
+        Mono<String> first = guard.guard(Mono::never);
+        first.subscribe();
+
+        assertThrows(GeminiCallGuard.RejectedCallException.class, () -> guard.guard(() -> Mono.just("second")).block());
+    }
+}
@@ -0,0 +1,36 @@
+package com.insurance.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvFileSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryClassifierTest {
+
+    private static final QueryClassifier classifier = new QueryClassifier();
+
+    @BeforeAll
+    static void loadKeywords() throws Exception {
+        ReflectionTestUtils.setField(classifier, "keywordTable", new ClassPathResource("query-keywords.txt"));
+        classifier.init();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvFileSource(resources = "/query-classifier-corpus.txt", delimiter = '|')
+    void classifiesCorpus(String question, String category, String intents) {
+        Set<String> expectedIntents = intents == null ? Set.of()
+                : Arrays.stream(intents.split(",")).map(String::trim).collect(Collectors.toSet());
+
+        QueryClassifier.Classification classification = classifier.classify(question);
+
+        assertEquals(category, classification.category());
+        assertEquals(expectedIntents, classification.intents());
+    }
+}
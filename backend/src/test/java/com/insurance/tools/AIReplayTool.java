@@ -0,0 +1,198 @@
+package com.insurance.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays recorded questions against /api/v1/ai/query at a fixed rate and reports throughput,
+ * latency percentiles, answer sources (cache / local index / LLM / fallback) and errors.
+ * Input is the NDJSON export of ai_query_logs (GET /api/v1/admin/export/ai-queries?format=ndjson)
+ * or a plain text file with one question per line.
+ *
+ * <p>All requests come from one address, so start the application under test with
+ * {@code --ai.rate-limit.enabled=false}; otherwise most of them are answered 429 by the
+ * per-client rate limit. Build the classpath as described in {@link StubLlmServer}, then:
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.insurance.tools.AIReplayTool \
+ *     --input=ai-queries.ndjson --target=http://localhost:8080 --rate=20 --requests=1000
+ * </pre>
+ *
+ * Options: {@code --rate} requests per second, {@code --requests} total (default: every
+ * question once), {@code --max-in-flight} (default 256), {@code --token} bearer token,
+ * {@code --bypass-cache}, {@code --shuffle}, {@code --timeout-ms} (default 30000).
+ * Requests are issued on schedule whether or not earlier ones have finished, and latency is
+ * measured from the scheduled start, so a slow server cannot hide its queueing delay.
+ */
+public class AIReplayTool {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final ConcurrentHashMap<String, AtomicLong> statuses = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> answerSources = new ConcurrentHashMap<>();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = StubLlmServer.parseOptions(args);
+        if (!options.containsKey("input")) {
+            System.err.println("Usage: AIReplayTool --input=FILE [--target=URL] [--rate=N] [--requests=N] "
+                    + "[--max-in-flight=N] [--token=JWT] [--bypass-cache] [--shuffle] [--timeout-ms=N]");
+            System.exit(2);
+        }
+        List<String> questions = readQuestions(Path.of(options.get("input")));
+        if (questions.isEmpty()) {
+            throw new RuntimeException("No questions found in " + options.get("input"));
+        }
+        if (options.containsKey("shuffle")) {
+            Collections.shuffle(questions);
+        }
+        new AIReplayTool().run(questions, options);
+    }
+
+    static List<String> readQuestions(Path input) throws IOException {
+        List<String> questions = new ArrayList<>();
+        for (String line : Files.readAllLines(input, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.startsWith("{")) {
+                JsonNode question = MAPPER.readTree(line).get("question");
+                if (question != null && question.isTextual() && !question.asText().isBlank()) {
+                    questions.add(question.asText());
+                }
+            } else {
+                questions.add(line);
+            }
+        }
+        return questions;
+    }
+
+    private void run(List<String> questions, Map<String, String> options) throws InterruptedException {
+        String target = options.getOrDefault("target", "http://localhost:8080").replaceAll("/+$", "");
+        double rate = Double.parseDouble(options.getOrDefault("rate", "10"));
+        int total = Integer.parseInt(options.getOrDefault("requests", String.valueOf(questions.size())));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "256"));
+        Duration timeout = Duration.ofMillis(Long.parseLong(options.getOrDefault("timeout-ms", "30000")));
+        String token = options.get("token");
+        boolean bypassCache = options.containsKey("bypass-cache");
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(8))
+                .build();
+        URI uri = URI.create(target + "/api/v1/ai/query");
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        CountDownLatch finished = new CountDownLatch(total);
+        long intervalNanos = (long) (1_000_000_000L / rate);
+
+        System.out.printf("Replaying %d requests (%d distinct questions) at %.1f req/s against %s%n",
+                total, new HashSet<>(questions).size(), rate, uri);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long scheduledNanos = startNanos + i * intervalNanos;
+            long waitNanos = scheduledNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            if (!inFlight.tryAcquire()) {
+                // The client would otherwise stop generating load at the intended rate
+                skipped.incrementAndGet();
+                finished.countDown();
+                continue;
+            }
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("question", questions.get(i % questions.size()));
+            body.put("bypassCache", bypassCache);
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json");
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            try {
+                request.POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        latencies.record((System.nanoTime() - scheduledNanos) / 1_000_000);
+                        record(response, error);
+                        inFlight.release();
+                        finished.countDown();
+                    });
+        }
+        if (!finished.await(timeout.toMillis() + 5000, TimeUnit.MILLISECONDS)) {
+            System.err.println("Some requests did not complete");
+        }
+        report(total, (System.nanoTime() - startNanos) / 1_000_000_000.0);
+        System.exit(0);
+    }
+
+    private void record(HttpResponse<String> response, Throwable error) {
+        if (error != null) {
+            errors.incrementAndGet();
+            count(statuses, error.getClass().getSimpleName());
+            return;
+        }
+        count(statuses, String.valueOf(response.statusCode()));
+        if (response.statusCode() != 200) {
+            errors.incrementAndGet();
+            return;
+        }
+        try {
+            JsonNode source = MAPPER.readTree(response.body()).get("answerSource");
+            count(answerSources, source != null && !source.isNull() ? source.asText() : "UNKNOWN");
+        } catch (IOException e) {
+            count(answerSources, "UNPARSEABLE");
+        }
+    }
+
+    private static void count(ConcurrentHashMap<String, AtomicLong> counts, String key) {
+        counts.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void report(int total, double elapsedSeconds) {
+        long[] counts = latencies.snapshot();
+        long completed = LatencyHistogram.totalCount(counts);
+        long answered = answerSources.values().stream().mapToLong(AtomicLong::get).sum();
+
+        System.out.println();
+        System.out.printf("Requests:     %d scheduled, %d completed, %d skipped (max in flight reached)%n",
+                total, completed, skipped.get());
+        System.out.printf("Duration:     %.1f s%n", elapsedSeconds);
+        System.out.printf("Throughput:   %.1f req/s completed%n", completed / elapsedSeconds);
+        System.out.printf("Latency (ms): p50 %d, p95 %d, p99 %d, mean %.0f%n",
+                LatencyHistogram.percentile(counts, 0.50), LatencyHistogram.percentile(counts, 0.95),
+                LatencyHistogram.percentile(counts, 0.99), LatencyHistogram.mean(counts));
+        System.out.printf("Errors:       %d (%.1f%%)%n", errors.get(), completed > 0 ? 100.0 * errors.get() / completed : 0.0);
+        System.out.println("Status codes: " + new TreeMap<>(statuses));
+        if (statuses.containsKey("429")) {
+            System.out.println("  429s come from the AI rate limit; run the target with --ai.rate-limit.enabled=false");
+        }
+        System.out.println("Answer sources:");
+        new TreeMap<>(answerSources).forEach((source, count) ->
+                System.out.printf("  %-12s %6d (%.1f%%)%n", source, count.get(), 100.0 * count.get() / Math.max(1, answered)));
+        long cacheHits = answerSources.getOrDefault("CACHE", new AtomicLong()).get();
+        System.out.printf("Cache hit rate: %.1f%%%n", 100.0 * cacheHits / Math.max(1, answered));
+    }
+}
@@ -0,0 +1,212 @@
+package com.insurance.tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-alone stand-in for the Gemini API, for benchmarking the AI pipeline without network
+ * access. Answers generateContent with a canned Gemini-shaped JSON body and
+ * streamGenerateContent (alt=sse) with the same answer split into SSE chunks, after a latency
+ * drawn from the configured distribution. Point the application at it with
+ * {@code --gemini.api.url=http://localhost:<port>/v1beta/models/stub:generateContent}.
+ * Lives with the test sources so it is not packaged into the application jar; from backend/:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.insurance.tools.StubLlmServer \
+ *     --port=18090 --latency=lognormal:800:3000 --error-rate=0.01 --answers=answers.txt
+ * </pre>
+ *
+ * Latency: {@code fixed:MS}, {@code uniform:MIN:MAX} or {@code lognormal:P50:P99} (milliseconds).
+ * {@code --answers} names a file with one canned answer per line; a built-in set is used otherwise.
+ * GET / returns the number of calls served.
+ */
+public class StubLlmServer {
+
+    private static final List<String> DEFAULT_ANSWERS = List.of(
+            "We offer Life, Health, Auto, Home and Business insurance, and each policy can be tailored to your needs. One of our agents can help you compare the options.",
+            "Term life insurance covers you for a fixed period at a lower premium, while whole life insurance lasts your lifetime and builds cash value.",
+            "To file a claim, submit it from your dashboard or call our 24/7 claims hotline with your policy number and the incident details.",
+            "Your premium depends on the coverage amount, deductible and your personal details. An agent can prepare a personalised quote.",
+            "You can book an in-person, phone or video consultation with one of our agents from the Book Appointment page.");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final List<String> answers;
+    private final AtomicLong calls = new AtomicLong();
+
+    StubLlmServer(LatencyDistribution latency, double errorRate, List<String> answers) {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.answers = answers;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        int port = Integer.parseInt(options.getOrDefault("port", "18090"));
+        LatencyDistribution latency = LatencyDistribution.parse(options.getOrDefault("latency", "lognormal:800:3000"));
+        double errorRate = Double.parseDouble(options.getOrDefault("error-rate", "0"));
+        List<String> answers = options.containsKey("answers")
+                ? Files.readAllLines(Path.of(options.get("answers")), StandardCharsets.UTF_8).stream()
+                        .filter(line -> !line.isBlank()).toList()
+                : DEFAULT_ANSWERS;
+
+        StubLlmServer stub = new StubLlmServer(latency, errorRate, answers);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 512);
+        server.createContext("/", stub::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        System.out.println("Stub LLM listening on port " + port + " (latency " + latency + ", error rate " + errorRate + ")");
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new RuntimeException("Unexpected argument: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return options;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if ("GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 200, "text/plain", String.valueOf(calls.get()));
+                return;
+            }
+            exchange.getRequestBody().readAllBytes();
+            long call = calls.incrementAndGet();
+            long delayMs = latency.sample();
+            String answer = answers.get((int) (call % answers.size()));
+            boolean stream = exchange.getRequestURI().getPath().endsWith(":streamGenerateContent");
+
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                sleep(delayMs);
+                send(exchange, 503, "application/json",
+                        "{\"error\":{\"code\":503,\"message\":\"The model is overloaded.\",\"status\":\"UNAVAILABLE\"}}");
+            } else if (stream) {
+                streamAnswer(exchange, answer, delayMs);
+            } else {
+                sleep(delayMs);
+                send(exchange, 200, "application/json", MAPPER.writeValueAsString(response(answer, true)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Roughly a third of the latency before the first chunk, the rest spread over the others
+    private void streamAnswer(HttpExchange exchange, String answer, long delayMs) throws IOException, InterruptedException {
+        List<String> chunks = split(answer, 4);
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        sleep(delayMs / 3);
+        for (int i = 0; i < chunks.size(); i++) {
+            if (i > 0) {
+                sleep((delayMs - delayMs / 3) / Math.max(1, chunks.size() - 1));
+            }
+            boolean last = i == chunks.size() - 1;
+            String event = "data: " + MAPPER.writeValueAsString(response(chunks.get(i), last)) + "\r\n\r\n";
+            out.write(event.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+
+    private static Map<String, Object> response(String text, boolean last) {
+        Map<String, Object> candidate = new LinkedHashMap<>();
+        candidate.put("content", Map.of("parts", List.of(Map.of("text", text)), "role", "model"));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("candidates", List.of(candidate));
+        if (last) {
+            candidate.put("finishReason", "STOP");
+            int tokens = Math.max(1, text.length() / 4);
+            body.put("usageMetadata", Map.of("promptTokenCount", 600, "candidatesTokenCount", tokens,
+                    "totalTokenCount", 600 + tokens));
+        }
+        return body;
+    }
+
+    private static List<String> split(String text, int parts) {
+        List<String> chunks = new ArrayList<>();
+        int size = Math.max(1, (text.length() + parts - 1) / parts);
+        for (int start = 0; start < text.length(); start += size) {
+            chunks.add(text.substring(start, Math.min(text.length(), start + size)));
+        }
+        return chunks;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    /**
+     * Response latency model in milliseconds.
+     */
+    record LatencyDistribution(String kind, double first, double second) {
+
+        static LatencyDistribution parse(String spec) {
+            String[] parts = spec.split(":");
+            try {
+                return switch (parts[0]) {
+                    case "fixed" -> new LatencyDistribution("fixed", Double.parseDouble(parts[1]), 0);
+                    case "uniform", "lognormal" -> new LatencyDistribution(parts[0],
+                            Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                    default -> throw new RuntimeException("Unknown latency distribution: " + spec);
+                };
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                throw new RuntimeException("Invalid latency distribution: " + spec);
+            }
+        }
+
+        long sample() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (kind) {
+                case "fixed" -> (long) first;
+                case "uniform" -> (long) random.nextDouble(first, Math.max(first + 1, second));
+                default -> {
+                    // Log-normal fitted to the median and 99th percentile (z = 2.326)
+                    double mu = Math.log(first);
+                    double sigma = Math.max(0, (Math.log(second) - mu) / 2.326);
+                    yield (long) Math.exp(mu + sigma * random.nextGaussian());
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return kind.equals("fixed") ? "fixed " + (long) first + "ms"
+                    : kind + " " + (long) first + "-" + (long) second + "ms";
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.insurance.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AhoCorasickTest {
+
+    private static List<String> matches(AhoCorasick<String> automaton, String text) {
+        List<String> matches = new ArrayList<>();
+        automaton.search(text, (keyword, start, end) -> matches.add(keyword + "@" + start + "-" + end));
+        return matches;
+    }
+
+    @Test
+    void matchesWholeWordsOnly() {
+        AhoCorasick<String> automaton = AhoCorasick.<String>builder()
+                .add("car", false, "car")
+                .build();
+
+        assertEquals(List.of("car@4-7"), matches(automaton, "new car."));
+        assertEquals(List.of("car@0-3"), matches(automaton, "car"));
+        assertEquals(List.of(), matches(automaton, "take care"));
+        assertEquals(List.of(), matches(automaton, "a scar"));
+        assertEquals(List.of(), matches(automaton, "cars"));
+        assertEquals(List.of(), matches(automaton, "autocar"));
+    }
+
+    @Test
+    void ignoresCase() {
+        AhoCorasick<String> automaton = AhoCorasick.<String>builder()
+                .add("Health", false, "health")
+                .build();
+
+        assertEquals(List.of("health@0-6"), matches(automaton, "HEALTH plans"));
+    }
+
+    @Test
+    void prefixKeywordsOnlyNeedABoundaryAtTheStart() {
+        AhoCorasick<String> automaton = AhoCorasick.<String>builder()
+                .add("claim", true, "claim*")
+                .build();
+
+        assertEquals(List.of("claim*@0-5"), matches(automaton, "claims"));
+        assertEquals(List.of("claim*@2-7"), matches(automaton, "I claimed it"));
+        assertEquals(List.of(), matches(automaton, "reclaim"));
+    }
+
+    @Test
+    void reportsKeywordsReachedThroughFailureLinks() {
+        AhoCorasick<String> automaton = AhoCorasick.<String>builder()
+                .add("life insurance", false, "life insurance")
+                .add("insurance", false, "insurance")
+                .add("a b", false, "a b")
+                .add("b c", false, "b c")
+                .build();
+
+        // "insurance" ends inside "life insurance" and is only found via the failure node's outputs
+        assertEquals(List.of("life insurance@5-19", "insurance@10-19"), matches(automaton, "term life insurance"));
+        // After "a b" the automaton has to fall back to "b" to continue into "b c"
+        assertEquals(List.of("a b@0-3", "b c@2-5"), matches(automaton, "a b c"));
+    }
+
+    @Test
+    void reportsEveryPayloadOfAKeyword() {
+        AhoCorasick<String> automaton = AhoCorasick.<String>builder()
+                .add("book", true, "category")
+                .add("book", true, "intent")
+                .build();
+
+        assertEquals(List.of("category@0-4", "intent@0-4"), matches(automaton, "booking"));
+    }
+
+    @Test
+    void rejectsEmptyKeywords() {
+        assertThrows(RuntimeException.class, () -> AhoCorasick.<String>builder().add("  ", false, "blank"));
+    }
+}
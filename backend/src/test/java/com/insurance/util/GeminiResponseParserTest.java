@@ -0,0 +1,90 @@
+package com.insurance.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiResponseParserTest {
+
+    @Test
+    void parsesTextFinishReasonAndUsage() {
+        GeminiResponseParser.Result result = GeminiResponseParser.parse("""
+                {"candidates":[{"content":{"parts":[{"text":"Term life is cheaper."}],"role":"model"},
+                  "finishReason":"STOP","index":0,"safetyRatings":[{"category":"HARM_CATEGORY_HARASSMENT","probability":"NEGLIGIBLE"}]}],
+                 "usageMetadata":{"promptTokenCount":612,"candidatesTokenCount":5,"totalTokenCount":617},
+                 "modelVersion":"gemini-1.5-flash"}
+                """);
+
+        assertEquals("Term life is cheaper.", result.text());
+        assertEquals("STOP", result.finishReason());
+        assertEquals(612, result.promptTokens());
+        assertEquals(5, result.candidateTokens());
+        assertEquals(617, result.totalTokens());
+        assertTrue(result.hasText());
+    }
+
+    @Test
+    void decodesEscapesUnicodeEscapesAndSurrogatePairs() {
+        String json = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":"
+                + "\"Say \\\"hi\\\"\\n\\tcaf\\u00e9 \\ud83d\\ude00 \\\\ naïve 🚗\"}]}}]}";
+
+        String expected = "Say \"hi\"\n\tcafé 😀 \\ naïve 🚗";
+        assertEquals(expected, GeminiResponseParser.parse(json).text());
+        assertEquals(expected, GeminiResponseParser.parse(json.getBytes(StandardCharsets.UTF_8)).text());
+    }
+
+    @Test
+    void concatenatesEveryPartOfTheFirstCandidate() {
+        GeminiResponseParser.Result result = GeminiResponseParser.parse("""
+                {"candidates":[{"content":{"parts":[{"text":"Home insurance "},{"inlineData":{"mimeType":"image/png","data":"AAAA"}},
+                  {"text":"covers "},{"text":"your property."}]}}]}
+                """);
+
+        assertEquals("Home insurance covers your property.", result.text());
+    }
+
+    @Test
+    void ignoresOtherCandidates() {
+        GeminiResponseParser.Result result = GeminiResponseParser.parse("""
+                {"candidates":[
+                  {"content":{"parts":[{"text":"First"}]},"finishReason":"STOP"},
+                  {"content":{"parts":[{"text":"Second"}]},"finishReason":"MAX_TOKENS"}]}
+                """);
+
+        assertEquals("First", result.text());
+        assertEquals("STOP", result.finishReason());
+    }
+
+    @Test
+    void handlesFieldsInAnyOrder() {
+        GeminiResponseParser.Result result = GeminiResponseParser.parse("""
+                {"usageMetadata":{"totalTokenCount":9,"promptTokenCount":9,"promptTokensDetails":[{"modality":"TEXT","tokenCount":9}]},
+                 "candidates":[{"finishReason":"SAFETY","content":{"role":"model","parts":[]}}]}
+                """);
+
+        assertEquals("", result.text());
+        assertFalse(result.hasText());
+        assertEquals("SAFETY", result.finishReason());
+        assertEquals(9, result.promptTokens());
+        assertNull(result.candidateTokens());
+        assertEquals(9, result.totalTokens());
+    }
+
+    @Test
+    void parsesAStreamingChunkWithoutUsage() {
+        GeminiResponseParser.Result result = GeminiResponseParser.parse(
+                "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\" partial\"}],\"role\":\"model\"}}]}");
+
+        assertEquals(" partial", result.text());
+        assertNull(result.finishReason());
+        assertNull(result.promptTokens());
+    }
+
+    @Test
+    void rejectsMalformedResponses() {
+        assertThrows(RuntimeException.class, () -> GeminiResponseParser.parse("[]"));
+        assertThrows(RuntimeException.class, () -> GeminiResponseParser.parse("{\"candidates\":[{\"content\":"));
+    }
+}
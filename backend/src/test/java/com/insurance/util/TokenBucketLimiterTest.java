@@ -0,0 +1,45 @@
+package com.insurance.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    void admitsUpToCapacityThenReportsTheWait() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(4, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ip:a", "overflow", 3, 1.0));
+        }
+        long waitMillis = limiter.tryAcquire("ip:a", "overflow", 3, 1.0);
+        assertTrue(waitMillis > 0 && waitMillis <= 1000, "wait " + waitMillis);
+        // Other keys are unaffected
+        assertEquals(0, limiter.tryAcquire("ip:b", "overflow", 3, 1.0));
+    }
+
+    @Test
+    void newKeysShareTheirOverflowBucketOnceFull() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(4, 1);
+        assertEquals(0, limiter.tryAcquire("user:a", "overflow:user", 1, 0.001));
+
+        assertEquals(0, limiter.tryAcquire("ip:b", "overflow:anonymous", 1, 0.001));
+        assertTrue(limiter.tryAcquire("ip:c", "overflow:anonymous", 1, 0.001) > 0);
+        // Signed-in callers have their own overflow bucket
+        assertEquals(0, limiter.tryAcquire("user:d", "overflow:user", 1, 0.001));
+    }
+
+    @Test
+    void evictsOnlyIdleBuckets() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(4, 100);
+        limiter.tryAcquire("ip:idle", "overflow", 1, 0.001);
+        Thread.sleep(50);
+        limiter.tryAcquire("ip:active", "overflow", 1, 0.001);
+
+        assertEquals(1, limiter.evictIdle(25));
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.tryAcquire("ip:active", "overflow", 1, 0.001) > 0);
+        assertEquals(0, limiter.tryAcquire("ip:idle", "overflow", 1, 0.001));
+    }
+}